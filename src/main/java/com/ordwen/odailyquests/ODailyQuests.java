@@ -12,26 +12,26 @@ import com.ordwen.odailyquests.commands.interfaces.InterfacesManager;
 import com.ordwen.odailyquests.commands.interfaces.InventoryClickListener;
 import com.ordwen.odailyquests.configuration.ConfigurationManager;
 import com.ordwen.odailyquests.configuration.essentials.Debugger;
-import com.ordwen.odailyquests.configuration.essentials.Modes;
-import com.ordwen.odailyquests.configuration.essentials.Temporality;
 import com.ordwen.odailyquests.events.EventsManager;
 import com.ordwen.odailyquests.files.*;
 import com.ordwen.odailyquests.quests.categories.CategoriesLoader;
 import com.ordwen.odailyquests.quests.player.progression.listeners.AllCategoryQuestsCompletedListener;
 import com.ordwen.odailyquests.quests.player.progression.listeners.AllQuestsCompletedListener;
 import com.ordwen.odailyquests.quests.player.progression.listeners.QuestCompletedListener;
+import com.ordwen.odailyquests.quests.player.progression.storage.binary.BinaryManager;
+import com.ordwen.odailyquests.quests.player.progression.storage.mvstore.MVStoreManager;
 import com.ordwen.odailyquests.quests.player.progression.storage.sql.SQLManager;
 import com.ordwen.odailyquests.quests.player.progression.storage.sql.h2.H2Manager;
 import com.ordwen.odailyquests.quests.player.progression.storage.yaml.YamlManager;
 import com.ordwen.odailyquests.tools.*;
 import com.ordwen.odailyquests.quests.player.QuestsManager;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionFlusher;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionWriter;
 import com.ordwen.odailyquests.quests.player.progression.storage.sql.mysql.MySQLManager;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.time.LocalDateTime;
-
 public final class ODailyQuests extends JavaPlugin {
 
     public static ODailyQuests INSTANCE;
@@ -43,15 +43,23 @@ public final class ODailyQuests extends JavaPlugin {
     private ConfigurationFiles configurationFiles;
     private ConfigurationManager configurationManager;
     private InterfacesManager interfacesManager;
+    private EventsManager eventsManager;
+    private ProgressionFlusher progressionFlusher;
+    private ProgressionWriter progressionWriter;
     private FilesManager filesManager;
     private SQLManager sqlManager;
     private YamlManager yamlManager;
-    private TimerTask timerTask;
+    private BinaryManager binaryManager;
+    private MVStoreManager mvStoreManager;
+    private RenewalScheduler renewalScheduler;
     private ReloadService reloadService;
     private CategoriesLoader categoriesLoader;
 
     boolean isServerStopping = false;
 
+    /* maximum time to wait for the pending writes on disable, in milliseconds */
+    private static final long WRITER_SHUTDOWN_TIMEOUT = 30_000L;
+
     @Override
     public void onEnable() {
         INSTANCE = this;
@@ -73,11 +81,16 @@ public final class ODailyQuests extends JavaPlugin {
         new AutoUpdater(this).checkForUpdate(); // LAST USE : 2.1.0 -> 2.1.1
         checkForSpigotUpdate();
 
+        /* Init writer of the players progression */
+        this.progressionWriter = new ProgressionWriter(this);
+
         /* Load SQL Support */
         switch (configurationFiles.getConfigFile().getString("storage_mode")) {
             case "MySQL" -> this.sqlManager = new MySQLManager(this);
             case "H2" -> this.sqlManager = new H2Manager(this);
-            default -> this.yamlManager = new YamlManager();
+            case "BINARY" -> this.binaryManager = new BinaryManager(this);
+            case "MVStore" -> this.mvStoreManager = new MVStoreManager(this);
+            default -> this.yamlManager = new YamlManager(this);
         }
 
         /* Init categories loader */
@@ -98,7 +111,8 @@ public final class ODailyQuests extends JavaPlugin {
         reloadService.reload();
 
         /* Load listeners */
-        new EventsManager(this).registerListeners();
+        this.eventsManager = new EventsManager(this);
+        eventsManager.registerListeners();
 
         /* Load commands */
         getCommand("dquests").setExecutor(new PlayerCommands(this));
@@ -125,10 +139,13 @@ public final class ODailyQuests extends JavaPlugin {
             PluginLogger.error("You should restart the server instead.");
         }
 
-        /* Init delayed task to draw new quests */
-        if (Modes.getTimestampMode() == 1 && Temporality.getTemporalityMode() == 1) {
-            timerTask = new TimerTask(LocalDateTime.now());
-        }
+        /* Init autosave */
+        this.progressionFlusher = new ProgressionFlusher(this);
+        progressionFlusher.start();
+
+        /* Init renewal of the connected players at each period boundary */
+        this.renewalScheduler = new RenewalScheduler(this);
+        renewalScheduler.start();
 
         PluginLogger.info("Plugin is started!");
     }
@@ -136,12 +153,18 @@ public final class ODailyQuests extends JavaPlugin {
     @Override
     public void onDisable() {
 
-        if (timerTask != null) timerTask.stop();
+        if (renewalScheduler != null) renewalScheduler.stop();
+        if (progressionFlusher != null) progressionFlusher.stop();
+
+        /* wait for the pending writes, the players they could not save are still dirty and saved below */
+        if (progressionWriter != null) progressionWriter.shutdown(WRITER_SHUTDOWN_TIMEOUT);
 
         /* Avoid errors on reload */
         reloadService.saveConnectedPlayerQuests(false);
 
         if (sqlManager != null) sqlManager.close();
+        if (binaryManager != null) binaryManager.close();
+        if (mvStoreManager != null) mvStoreManager.close();
         PluginLogger.info(ChatColor.RED + "Plugin is shutting down...");
     }
 
@@ -210,6 +233,38 @@ public final class ODailyQuests extends JavaPlugin {
         return filesManager;
     }
 
+    /**
+     * Get ProgressionFlusher instance.
+     * @return ProgressionFlusher instance.
+     */
+    public ProgressionFlusher getProgressionFlusher() {
+        return progressionFlusher;
+    }
+
+    /**
+     * Get ProgressionWriter instance.
+     * @return ProgressionWriter instance.
+     */
+    public ProgressionWriter getProgressionWriter() {
+        return progressionWriter;
+    }
+
+    /**
+     * Get RenewalScheduler instance.
+     * @return RenewalScheduler instance.
+     */
+    public RenewalScheduler getRenewalScheduler() {
+        return renewalScheduler;
+    }
+
+    /**
+     * Get EventsManager instance.
+     * @return EventsManager instance.
+     */
+    public EventsManager getEventsManager() {
+        return eventsManager;
+    }
+
     /**
      * Get InterfacesManager instance.
      * @return InterfacesManager instance.
@@ -234,6 +289,22 @@ public final class ODailyQuests extends JavaPlugin {
         return yamlManager;
     }
 
+    /**
+     * Get BinaryManager instance.
+     * @return BinaryManager instance.
+     */
+    public BinaryManager getBinaryManager() {
+        return binaryManager;
+    }
+
+    /**
+     * Get MVStoreManager instance.
+     * @return MVStoreManager instance.
+     */
+    public MVStoreManager getMVStoreManager() {
+        return mvStoreManager;
+    }
+
     /**
      * Get QuestsLoader instance.
      * @return QuestsLoader instance.
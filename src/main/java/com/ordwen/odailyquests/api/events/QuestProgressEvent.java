@@ -17,20 +17,34 @@ public class QuestProgressEvent extends Event implements Cancellable {
     private final Player player;
     private final Progression progression;
     private final AbstractQuest abstractQuest;
+    private int amount;
 
     private static final HandlerList HANDLERS = new HandlerList();
     private boolean isCancelled;
 
     /**
-     * Constructor for the QuestProgressEvent.
+     * Constructor for the QuestProgressEvent, for a single unit of progress.
      * @param player player who's doing the quest
      * @param progression current progression of the quest
      * @param abstractQuest quest that's being progressed
      */
     public QuestProgressEvent(Player player, Progression progression, AbstractQuest abstractQuest) {
+        this(player, progression, abstractQuest, 1);
+    }
+
+    /**
+     * Constructor for the QuestProgressEvent.
+     * @param player player who's doing the quest
+     * @param progression current progression of the quest
+     * @param abstractQuest quest that's being progressed
+     * @param amount amount of progress to add
+     * @since 2.2.4
+     */
+    public QuestProgressEvent(Player player, Progression progression, AbstractQuest abstractQuest, int amount) {
         this.player = player;
         this.progression = progression;
         this.abstractQuest = abstractQuest;
+        this.amount = amount;
 
         this.isCancelled = false;
     }
@@ -78,4 +92,22 @@ public class QuestProgressEvent extends Event implements Cancellable {
     public AbstractQuest getAbstractQuest() {
         return abstractQuest;
     }
+
+    /**
+     * Get the amount of progress that will be added to the quest.
+     * @return amount of progress
+     * @since 2.2.4
+     */
+    public int getAmount() {
+        return amount;
+    }
+
+    /**
+     * Set the amount of progress that will be added to the quest.
+     * @param amount amount of progress
+     * @since 2.2.4
+     */
+    public void setAmount(int amount) {
+        this.amount = amount;
+    }
 }
@@ -6,14 +6,15 @@ import com.ordwen.odailyquests.externs.hooks.holograms.HologramsManager;
 import com.ordwen.odailyquests.externs.hooks.holograms.HolographicDisplaysHook;
 import com.ordwen.odailyquests.commands.convert.ConverterManager;
 import com.ordwen.odailyquests.commands.interfaces.playerinterface.PlayerQuestsInterface;
+import com.ordwen.odailyquests.configuration.essentials.Modes;
 import com.ordwen.odailyquests.configuration.essentials.QuestsAmount;
 import com.ordwen.odailyquests.enums.QuestsMessages;
 import com.ordwen.odailyquests.enums.QuestsPermissions;
 import com.ordwen.odailyquests.quests.categories.CategoriesLoader;
-import com.ordwen.odailyquests.quests.types.AbstractQuest;
 import com.ordwen.odailyquests.quests.player.PlayerQuests;
 import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.Progression;
+import com.ordwen.odailyquests.quests.player.progression.Utils;
 import com.ordwen.odailyquests.tools.PluginLogger;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -23,9 +24,6 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-
 public class AdminCommands implements CommandExecutor {
 
     private final ODailyQuests oDailyQuests;
@@ -75,16 +73,14 @@ public class AdminCommands implements CommandExecutor {
                             switch (args[1]) {
                                 case "quests" -> {
                                     if (target != null) {
-                                        int totalAchievedQuests = QuestsManager.getActiveQuests().get(args[2]).getTotalAchievedQuests();
-
-                                        QuestsManager.getActiveQuests().remove(args[2]);
-                                        LinkedHashMap<AbstractQuest, Progression> quests = QuestsManager.selectRandomQuests();
+                                        final PlayerQuests previousQuests = QuestsManager.getActiveQuests().get(target);
 
-                                        PlayerQuests playerQuests = new PlayerQuests(System.currentTimeMillis(), quests);
-                                        playerQuests.setTotalAchievedQuests(totalAchievedQuests);
+                                        /* each reset is a reroll, so that deterministic draws give other quests */
+                                        PlayerQuests playerQuests = Utils.createNewPlayerQuests(target.getUniqueId(), Modes.getTimestampMode(),
+                                                previousQuests.getTotalAchievedQuests(), previousQuests.getRerolls() + 1);
 
-                                        QuestsManager.getActiveQuests().put(args[2], playerQuests);
-                                        QuestsManager.getActiveQuests().get(args[2]).setAchievedQuests(0);
+                                        playerQuests.setAchievedQuests(0);
+                                        QuestsManager.getActiveQuests().put(target, playerQuests);
 
                                         PluginLogger.fine(args[2] + " inserted into the array.");
 
@@ -100,7 +96,7 @@ public class AdminCommands implements CommandExecutor {
                                 }
                                 case "total" -> {
                                     if (target != null) {
-                                        QuestsManager.getActiveQuests().get(args[2]).setTotalAchievedQuests(0);
+                                        QuestsManager.getActiveQuests().get(target).setTotalAchievedQuests(0);
 
                                         String msg = QuestsMessages.TOTAL_AMOUNT_RESET_ADMIN.toString();
                                         if (msg != null) sender.sendMessage(msg.replace("%target%", target.getName()));
@@ -167,22 +163,18 @@ public class AdminCommands implements CommandExecutor {
                         }
 
                         if (questIndex >= 1 && questIndex <= QuestsAmount.getQuestsAmount()) {
-                            final HashMap<AbstractQuest, Progression> playerQuests = QuestsManager.getActiveQuests().get(args[1]).getPlayerQuests();
+                            final PlayerQuests playerQuests = QuestsManager.getActiveQuests().get(args[1]);
+                            final int slot = questIndex - 1;
 
-                            int index = 0;
-                            for (AbstractQuest quest : playerQuests.keySet()) {
-                                Progression progression = playerQuests.get(quest);
-                                if (index == questIndex - 1) {
-                                    if (!playerQuests.get(quest).isAchieved()) {
-                                        final QuestCompletedEvent event = new QuestCompletedEvent(target, progression, quest);
-                                        ODailyQuests.INSTANCE.getServer().getPluginManager().callEvent(event);
-                                        break;
-                                    } else {
-                                        final String msg = QuestsMessages.QUEST_ALREADY_ACHIEVED.toString();
-                                        if (msg != null) sender.sendMessage(msg);
-                                    }
+                            if (slot < playerQuests.getQuestsCount()) {
+                                final Progression progression = playerQuests.getProgression(slot);
+                                if (!progression.isAchieved()) {
+                                    final QuestCompletedEvent event = new QuestCompletedEvent(target, progression, playerQuests.getQuest(slot));
+                                    ODailyQuests.INSTANCE.getServer().getPluginManager().callEvent(event);
+                                } else {
+                                    final String msg = QuestsMessages.QUEST_ALREADY_ACHIEVED.toString();
+                                    if (msg != null) sender.sendMessage(msg);
                                 }
-                                index++;
                             }
                         } else {
                             final String msg = QuestsMessages.INVALID_QUEST_ID.toString();
@@ -1,21 +1,36 @@
 package com.ordwen.odailyquests.commands;
 
 import com.ordwen.odailyquests.ODailyQuests;
+import com.ordwen.odailyquests.configuration.essentials.Debugger;
 import com.ordwen.odailyquests.configuration.essentials.Modes;
+import com.ordwen.odailyquests.configuration.essentials.QuestsAmount;
 import com.ordwen.odailyquests.configuration.essentials.Temporality;
 import com.ordwen.odailyquests.configuration.integrations.ItemsAdderEnabled;
 import com.ordwen.odailyquests.configuration.integrations.OraxenEnabled;
 import com.ordwen.odailyquests.externs.hooks.holograms.HologramsManager;
 import com.ordwen.odailyquests.quests.categories.CategoriesLoader;
+import com.ordwen.odailyquests.quests.categories.QuestCatalog;
+import com.ordwen.odailyquests.quests.player.progression.Utils;
+import com.ordwen.odailyquests.quests.player.progression.storage.LoadedProgression;
+import com.ordwen.odailyquests.quests.player.progression.storage.binary.BinaryManager;
+import com.ordwen.odailyquests.quests.player.progression.storage.mvstore.MVStoreManager;
 import com.ordwen.odailyquests.quests.player.progression.storage.sql.SQLManager;
 import com.ordwen.odailyquests.quests.player.progression.storage.yaml.YamlManager;
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
 import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.tools.PluginLogger;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 public class ReloadService {
 
@@ -23,6 +38,17 @@ public class ReloadService {
     private final CategoriesLoader categoriesLoader;
     private final SQLManager sqlManager;
     private final YamlManager yamlManager;
+    private final BinaryManager binaryManager;
+    private final MVStoreManager mvStoreManager;
+
+    /* true once quests have been loaded a first time */
+    private boolean questsLoaded;
+
+    /* amount of players loaded by each async task */
+    private static final int LOAD_CHUNK_SIZE = 50;
+
+    /* maximum time a load waits for the pending writes of a player, in milliseconds */
+    private static final long LOAD_WAIT_TIMEOUT = 5_000L;
 
     /**
      * Constructor.
@@ -40,82 +66,243 @@ public class ReloadService {
             this.yamlManager = oDailyQuests.getYamlManager();
             this.sqlManager = null;
         }
+
+        this.binaryManager = oDailyQuests.getBinaryManager();
+        this.mvStoreManager = oDailyQuests.getMVStoreManager();
     }
 
     /**
      * Load all quests from connected players, to avoid errors on reload.
+     * Players are loaded by chunks in parallel async tasks, then activated together on the main thread.
      */
     public void loadConnectedPlayerQuests() {
-        switch (Modes.getStorageMode()) {
-            case "YAML" -> {
-                if (yamlManager == null) restartNeeded();
-                else {
-                    for (Player player : Bukkit.getServer().getOnlinePlayers()) {
-                        if (!QuestsManager.getActiveQuests().containsKey(player.getName())) {
-                            yamlManager.getLoadProgressionYAML().loadPlayerQuests(player.getName(), QuestsManager.getActiveQuests(),
-                                    Modes.getQuestsMode(),
-                                    Modes.getTimestampMode(),
-                                    Temporality.getTemporalityMode());
-                        }
-                    }
-                }
+        final String storageMode = Modes.getStorageMode();
+        if (!isStorageLoaded(storageMode)) return;
+
+        final int questsConfigMode = Modes.getQuestsMode();
+        final int timestampConfigMode = Modes.getTimestampMode();
+        final int temporalityMode = Temporality.getTemporalityMode();
+
+        final Map<String, UUID> players = new LinkedHashMap<>();
+        for (Player player : Bukkit.getServer().getOnlinePlayers()) {
+            if (!QuestsManager.getActiveQuests().contains(player)) players.put(player.getName(), player.getUniqueId());
+        }
+        if (players.isEmpty()) return;
+
+        final Executor asyncExecutor = task -> Bukkit.getScheduler().runTaskAsynchronously(oDailyQuests, task);
+        final List<CompletableFuture<Map<String, LoadedProgression>>> chunks = new ArrayList<>();
+
+        final List<String> names = new ArrayList<>(players.keySet());
+        for (int from = 0; from < names.size(); from += LOAD_CHUNK_SIZE) {
+            final Map<String, UUID> chunk = new LinkedHashMap<>();
+            for (String name : names.subList(from, Math.min(from + LOAD_CHUNK_SIZE, names.size()))) {
+                chunk.put(name, players.get(name));
             }
-            case "MySQL", "H2" -> {
-                if (sqlManager == null) restartNeeded();
-                else {
-                    for (Player player : Bukkit.getServer().getOnlinePlayers()) {
-                        if (!QuestsManager.getActiveQuests().containsKey(player.getName())) {
-                            sqlManager.getLoadProgressionSQL().loadProgression(player.getName(), QuestsManager.getActiveQuests(),
-                                    Modes.getQuestsMode(),
-                                    Modes.getTimestampMode(),
-                                    Temporality.getTemporalityMode());
-                        }
-                    }
+
+            chunks.add(CompletableFuture.supplyAsync(() -> {
+                /* the quests saved before the reload must be written before being read again */
+                for (String name : chunk.keySet()) {
+                    oDailyQuests.getProgressionWriter().awaitWrites(name, LOAD_WAIT_TIMEOUT);
                 }
+                return fetchPlayerQuests(storageMode, chunk, questsConfigMode, timestampConfigMode, temporalityMode);
+            }, asyncExecutor));
+        }
+
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).whenComplete((ignored, throwable) ->
+                Bukkit.getScheduler().runTask(oDailyQuests, () -> activatePlayerQuests(chunks)));
+    }
+
+    /**
+     * Check that the storage of the selected mode has been loaded on startup.
+     *
+     * @param storageMode selected storage mode.
+     * @return true if the players can be loaded.
+     */
+    private boolean isStorageLoaded(String storageMode) {
+        final boolean isLoaded;
+        switch (storageMode) {
+            case "YAML" -> isLoaded = yamlManager != null;
+            case "MySQL", "H2" -> isLoaded = sqlManager != null;
+            case "BINARY" -> isLoaded = binaryManager != null;
+            case "MVStore" -> isLoaded = mvStoreManager != null;
+            default -> {
+                PluginLogger.error("Impossible to load player quests : the selected storage mode is incorrect !");
+                return false;
+            }
+        }
+
+        if (!isLoaded) restartNeeded();
+        return isLoaded;
+    }
+
+    /**
+     * Load the quests of a chunk of players. Blocking, must not be called from the main thread.
+     *
+     * @param storageMode selected storage mode.
+     * @param players     UUID of the players, by name.
+     * @return loaded progressions, by player name.
+     */
+    private Map<String, LoadedProgression> fetchPlayerQuests(String storageMode, Map<String, UUID> players, int questsConfigMode, int timestampConfigMode, int temporalityMode) {
+        if (storageMode.equals("MySQL") || storageMode.equals("H2")) {
+            return sqlManager.getLoadProgressionSQL().fetchProgressions(players, questsConfigMode, timestampConfigMode, temporalityMode);
+        }
+
+        final Map<String, LoadedProgression> loaded = new LinkedHashMap<>();
+        for (Map.Entry<String, UUID> entry : players.entrySet()) {
+            final LoadedProgression progression = switch (storageMode) {
+                case "YAML" -> yamlManager.getLoadProgressionYAML().fetchPlayerQuests(entry.getValue(), entry.getKey(), questsConfigMode, timestampConfigMode, temporalityMode);
+                case "BINARY" -> binaryManager.getLoadProgressionBinary().fetchProgression(entry.getValue(), entry.getKey(), questsConfigMode, timestampConfigMode, temporalityMode);
+                case "MVStore" -> mvStoreManager.getLoadProgressionMVStore().fetchProgression(entry.getValue(), entry.getKey(), questsConfigMode, timestampConfigMode, temporalityMode);
+                default -> null;
+            };
+
+            if (progression != null) loaded.put(entry.getKey(), progression);
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Activate the loaded quests of all chunks. Must be called from the main thread.
+     *
+     * @param chunks loaded chunks.
+     */
+    private void activatePlayerQuests(List<CompletableFuture<Map<String, LoadedProgression>>> chunks) {
+        int activated = 0;
+
+        for (CompletableFuture<Map<String, LoadedProgression>> chunk : chunks) {
+            final Map<String, LoadedProgression> loaded;
+            try {
+                loaded = chunk.join();
+            } catch (CompletionException e) {
+                PluginLogger.error("An error occurred while loading the quests of connected players.");
+                e.getCause().printStackTrace();
+                continue;
+            }
+
+            for (Map.Entry<String, LoadedProgression> entry : loaded.entrySet()) {
+                if (QuestsManager.getActiveQuests().contains(entry.getKey())) continue;
+
+                Utils.activatePlayerQuests(entry.getKey(), QuestsManager.getActiveQuests(), entry.getValue());
+                activated++;
             }
-            default ->
-                    PluginLogger.error("Impossible to load player quests : the selected storage mode is incorrect !");
         }
+
+        Debugger.addDebug("Quests of " + activated + " connected player(s) have been loaded.");
     }
 
     /**
-     * Save all quests from connected players, to avoid errors on reload.
+     * Save all quests from connected players that have unsaved changes, to avoid errors on reload.
      */
     public void saveConnectedPlayerQuests(boolean isAsync) {
+        final Map<String, PlayerQuests> players = QuestsManager.getActiveQuests().getPlayersByName();
+
+        final Map<String, PlayerQuests> dirtyPlayers = new LinkedHashMap<>();
+        for (Map.Entry<String, PlayerQuests> entry : players.entrySet()) {
+            if (entry.getValue().isDirty()) dirtyPlayers.put(entry.getKey(), entry.getValue());
+        }
 
-        final Set<String> playersToRemove = new HashSet<>();
+        if (!savePlayerQuests(dirtyPlayers, isAsync)) return;
 
+        for (String player : players.keySet()) {
+            QuestsManager.getActiveQuests().remove(player);
+        }
+    }
+
+    /**
+     * Save the quests of the given players with the selected storage mode.
+     *
+     * @param players player quests, by player name.
+     * @param isAsync whether the save must be done asynchronously.
+     * @return false if the storage of the selected mode is not loaded.
+     */
+    private boolean savePlayerQuests(Map<String, PlayerQuests> players, boolean isAsync) {
         switch (Modes.getStorageMode()) {
             case "YAML" -> {
-                if (yamlManager == null) restartNeeded();
-                else {
-                    for (String player : QuestsManager.getActiveQuests().keySet()) {
-                        yamlManager.getSaveProgressionYAML().saveProgression(player, QuestsManager.getActiveQuests().get(player), isAsync);
-                        playersToRemove.add(player);
-                    }
+                if (yamlManager == null) break;
+                for (Map.Entry<String, PlayerQuests> entry : players.entrySet()) {
+                    yamlManager.getSaveProgressionYAML().saveProgression(QuestsManager.getActiveQuests().getUniqueId(entry.getKey()), entry.getKey(), entry.getValue(), isAsync);
                 }
+                return true;
             }
             case "MySQL", "H2" -> {
-                if (sqlManager == null) restartNeeded();
-                else {
-                    for (String player : QuestsManager.getActiveQuests().keySet()) {
-                        sqlManager.getSaveProgressionSQL().saveProgression(player, QuestsManager.getActiveQuests().get(player), isAsync);
-                        playersToRemove.add(player);
-                    }
-                }
+                if (sqlManager == null) break;
+                sqlManager.getSaveProgressionSQL().saveProgressions(players, isAsync);
+                return true;
+            }
+            case "BINARY" -> {
+                if (binaryManager == null) break;
+                binaryManager.getSaveProgressionBinary().saveProgressions(players, isAsync);
+                return true;
+            }
+            case "MVStore" -> {
+                if (mvStoreManager == null) break;
+                mvStoreManager.getSaveProgressionMVStore().saveProgressions(players, isAsync);
+                return true;
+            }
+            default -> {
+                PluginLogger.error("Impossible to save player quests : the selected storage mode is incorrect !");
+                return false;
             }
-            default -> PluginLogger.error("Impossible to save player quests : the selected storage mode is incorrect !");
         }
 
-        for (String player : playersToRemove) {
-            QuestsManager.getActiveQuests().remove(player);
+        restartNeeded();
+        return false;
+    }
+
+    /**
+     * Remap the quests of connected players onto the reloaded quests, in memory.
+     * Only the players whose quests do not exist anymore get new quests, and are saved.
+     * If the catalog has changed, the quests coming from the deterministic draw are saved too,
+     * as the new catalog may not draw them again.
+     *
+     * @param previousCatalogVersion version of the catalog before the reload.
+     */
+    private void remapConnectedPlayerQuests(long previousCatalogVersion) {
+        final QuestCatalog catalog = CategoriesLoader.getCatalog();
+        final boolean catalogChanged = catalog.getVersion() != previousCatalogVersion;
+
+        final Map<String, PlayerQuests> playersToSave = new LinkedHashMap<>();
+        int invalidatedPlayers = 0;
+
+        for (Map.Entry<String, PlayerQuests> entry : QuestsManager.getActiveQuests().getPlayersByName().entrySet()) {
+            if (Utils.remapPlayerQuests(entry.getKey(), entry.getValue(), catalog)) {
+                playersToSave.put(entry.getKey(), entry.getValue());
+                invalidatedPlayers++;
+            }
+            if (catalogChanged && entry.getValue().clearDerived()) {
+                playersToSave.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if (invalidatedPlayers > 0) {
+            PluginLogger.info("Some quests of " + invalidatedPlayers + " connected player(s) do not exist anymore, they have been replaced.");
         }
+        if (!playersToSave.isEmpty()) savePlayerQuests(playersToSave, true);
+    }
+
+    /**
+     * Get the settings that define the quest slots of the players.
+     *
+     * @return quests mode and quests amounts.
+     */
+    private static int[] getQuestsLayout() {
+        return new int[]{
+                Modes.getQuestsMode(),
+                QuestsAmount.getQuestsAmount(),
+                QuestsAmount.getEasyQuestsAmount(),
+                QuestsAmount.getMediumQuestsAmount(),
+                QuestsAmount.getHardQuestsAmount()
+        };
     }
 
     /**
      * Execute all required actions when the command /qadmin reload is performed.
      */
     public void reload() {
+        final int[] previousLayout = getQuestsLayout();
+        final long previousCatalogVersion = CategoriesLoader.getCatalog().getVersion();
+
         oDailyQuests.getFilesManager().loadAllFiles();
 
         /* Load holograms */
@@ -124,24 +311,60 @@ public class ReloadService {
         /* Load specific settings */
         oDailyQuests.getConfigurationManager().loadConfiguration();
 
+        /* Apply autosave settings */
+        if (oDailyQuests.getProgressionFlusher() != null) {
+            oDailyQuests.getProgressionFlusher().start();
+        }
+
+        /* Apply renewal settings */
+        if (oDailyQuests.getRenewalScheduler() != null) {
+            oDailyQuests.getRenewalScheduler().start();
+        }
+
         /* Load quests & interface */
-        if (ItemsAdderEnabled.isEnabled() && ItemsAdderEnabled.isLoaded()) {
-            categoriesLoader.loadCategories();
-            oDailyQuests.getInterfacesManager().initAllObjects();
+        final boolean canLoadQuests = (ItemsAdderEnabled.isEnabled() && ItemsAdderEnabled.isLoaded())
+                || (OraxenEnabled.isEnabled() && OraxenEnabled.isLoaded())
+                || (!ItemsAdderEnabled.isEnabled() && !OraxenEnabled.isEnabled());
+
+        if (!canLoadQuests) {
+            applyQuests(previousLayout, previousCatalogVersion);
         }
 
-        else if (OraxenEnabled.isEnabled() && OraxenEnabled.isLoaded()) {
+        /* players must not draw quests from an empty catalog, the first load blocks until quests are available */
+        else if (!questsLoaded) {
             categoriesLoader.loadCategories();
             oDailyQuests.getInterfacesManager().initAllObjects();
+            questsLoaded = true;
+            applyQuests(previousLayout, previousCatalogVersion);
         }
 
-        else if (!ItemsAdderEnabled.isEnabled() && !OraxenEnabled.isEnabled()) {
-            categoriesLoader.loadCategories();
+        else categoriesLoader.loadCategoriesAsync(() -> {
             oDailyQuests.getInterfacesManager().initAllObjects();
+            applyQuests(previousLayout, previousCatalogVersion);
+        });
+    }
+
+    /**
+     * Apply the loaded quests to the listeners and to the connected players.
+     *
+     * @param previousLayout         quests layout before the reload.
+     * @param previousCatalogVersion version of the catalog before the reload.
+     */
+    private void applyQuests(int[] previousLayout, long previousCatalogVersion) {
+
+        /* Update listeners according to the loaded quests, once they have been registered on enable */
+        if (oDailyQuests.getEventsManager() != null) {
+            oDailyQuests.getEventsManager().registerListeners();
+        }
+
+        /* the quest slots of the players no longer match the configuration */
+        if (!Arrays.equals(previousLayout, getQuestsLayout())) {
+            saveConnectedPlayerQuests(true);
+            Bukkit.getScheduler().runTaskLater(oDailyQuests, this::loadConnectedPlayerQuests, 20L);
+            return;
         }
 
-        saveConnectedPlayerQuests(true);
-        Bukkit.getScheduler().runTaskLater(oDailyQuests, this::loadConnectedPlayerQuests, 20L);
+        remapConnectedPlayerQuests(previousCatalogVersion);
     }
 
     private void restartNeeded() {
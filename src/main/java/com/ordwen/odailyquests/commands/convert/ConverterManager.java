@@ -27,6 +27,17 @@ public class ConverterManager {
                     }
                 }
             }
+            case "H2", "h2" -> {
+                switch (newFormat) {
+                    case "MVStore", "mvstore" -> {
+                        return new H2toMVStoreConverter().convert(oDailyQuests);
+                    }
+                    default -> {
+                        PluginLogger.error("The new format is not supported.");
+                        return false;
+                    }
+                }
+            }
             default -> {
                 PluginLogger.error("The old format is not supported.");
                 return false;
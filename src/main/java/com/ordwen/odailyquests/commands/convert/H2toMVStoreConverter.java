@@ -0,0 +1,180 @@
+package com.ordwen.odailyquests.commands.convert;
+
+import com.ordwen.odailyquests.ODailyQuests;
+import com.ordwen.odailyquests.configuration.essentials.Modes;
+import com.ordwen.odailyquests.configuration.essentials.Temporality;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionCodec;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionSnapshot;
+import com.ordwen.odailyquests.quests.player.progression.storage.mvstore.MVStoreManager;
+import com.ordwen.odailyquests.quests.player.progression.storage.sql.LoadProgressionSQL;
+import com.ordwen.odailyquests.quests.player.progression.storage.sql.SQLManager;
+import com.ordwen.odailyquests.quests.player.progression.storage.sql.h2.H2Manager;
+import com.ordwen.odailyquests.tools.PluginLogger;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Copy the progressions stored in the H2 SQL tables into the MVStore storage.
+ * Each player is rebuilt as it would be loaded from the database, with the slots of the deterministic draw
+ * filled in, without resolving the quests.
+ */
+public class H2toMVStoreConverter {
+
+    private static final String READ_QUERY =
+            "SELECT PLAYER.PLAYERNAME, PLAYER.PLAYERUUID, PLAYER.PLAYERTIMESTAMP, PLAYER.ACHIEVEDQUESTS, PLAYER.TOTALACHIEVEDQUESTS, PLAYER.REROLLS, " +
+                    "PROGRESSION.PLAYERQUESTID, PROGRESSION.QUESTINDEX, PROGRESSION.QUESTID, PROGRESSION.ADVANCEMENT, PROGRESSION.ISACHIEVED " +
+                    "FROM PLAYER LEFT JOIN PROGRESSION ON PROGRESSION.PLAYERNAME = PLAYER.PLAYERNAME " +
+                    "ORDER BY PLAYER.PLAYERNAME, PROGRESSION.PLAYERQUESTID";
+
+    public boolean convert(ODailyQuests oDailyQuests) {
+
+        try {
+            /* UUIDs known by the server, for the players saved before their UUID was stored */
+            final Map<String, UUID> knownPlayers = new HashMap<>();
+            for (OfflinePlayer offlinePlayer : Bukkit.getOfflinePlayers()) {
+                if (offlinePlayer.getName() != null) knownPlayers.put(offlinePlayer.getName(), offlinePlayer.getUniqueId());
+            }
+
+            final int timestampMode = Modes.getTimestampMode();
+            final int temporalityMode = Temporality.getTemporalityMode();
+
+            Bukkit.getScheduler().runTaskAsynchronously(oDailyQuests, () -> {
+
+                final SQLManager sqlManager = new H2Manager(ODailyQuests.INSTANCE);
+
+                /* the store file can only be opened once */
+                final boolean isLoaded = oDailyQuests.getMVStoreManager() != null;
+                final MVStoreManager mvStoreManager = isLoaded ? oDailyQuests.getMVStoreManager() : new MVStoreManager(oDailyQuests);
+
+                try {
+                    final Map<UUID, byte[]> records = readAll(sqlManager, knownPlayers, timestampMode, temporalityMode);
+                    mvStoreManager.write(records);
+                    mvStoreManager.commit();
+
+                    PluginLogger.info(records.size() + " player(s) converted from H2 to MVStore.");
+                } catch (SQLException e) {
+                    PluginLogger.error("An error occurred while converting H2 to MVStore.");
+                    e.printStackTrace();
+                } finally {
+                    sqlManager.close();
+                    if (!isLoaded) mvStoreManager.close();
+                }
+            });
+        } catch (Exception e) {
+            PluginLogger.error("An error occurred while converting H2 to MVStore.");
+            e.printStackTrace();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Read and encode all the progressions stored in the database.
+     *
+     * @param sqlManager   H2 database.
+     * @param knownPlayers UUIDs known by the server, by player name.
+     * @return encoded progressions, by player UUID.
+     * @throws SQLException SQL errors.
+     */
+    private Map<UUID, byte[]> readAll(SQLManager sqlManager, Map<String, UUID> knownPlayers, int timestampMode, int temporalityMode) throws SQLException {
+        final Map<UUID, byte[]> records = new LinkedHashMap<>();
+        int skippedPlayers = 0;
+
+        final Connection connection = sqlManager.getConnection();
+        if (connection == null) throw new SQLException("The H2 database is unavailable.");
+
+        try (connection;
+             PreparedStatement preparedStatement = connection.prepareStatement(READ_QUERY);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+
+            String playerName = null;
+            UUID uuid = null;
+            long timestamp = 0;
+            int achievedQuests = 0;
+            int totalAchievedQuests = 0;
+            int rerolls = 0;
+
+            final List<Integer> slots = new ArrayList<>();
+            final List<String> questIds = new ArrayList<>();
+            final List<Integer> questIndexes = new ArrayList<>();
+            final List<Integer> advancements = new ArrayList<>();
+            final List<Boolean> achieved = new ArrayList<>();
+
+            while (true) {
+                final boolean hasNext = resultSet.next();
+                final String rowName = hasNext ? resultSet.getString("PLAYERNAME").trim() : null;
+
+                /* all the rows of the previous player have been read */
+                if (playerName != null && !playerName.equals(rowName)) {
+                    if (uuid == null) {
+                        PluginLogger.warn("Impossible to convert player " + playerName + " because their UUID is unknown.");
+                        skippedPlayers++;
+                    } else {
+                        final ProgressionSnapshot snapshot = LoadProgressionSQL.buildSnapshot(uuid, playerName, timestamp, achievedQuests, totalAchievedQuests,
+                                rerolls, slots, questIds, questIndexes, advancements, achieved, timestampMode, temporalityMode);
+                        records.put(uuid, ProgressionCodec.encode(uuid, snapshot));
+                    }
+                }
+
+                if (!hasNext) break;
+
+                if (!rowName.equals(playerName)) {
+                    playerName = rowName;
+                    uuid = readUniqueId(resultSet.getString("PLAYERUUID"), knownPlayers.get(playerName));
+                    timestamp = resultSet.getLong("PLAYERTIMESTAMP");
+                    achievedQuests = resultSet.getInt("ACHIEVEDQUESTS");
+                    totalAchievedQuests = resultSet.getInt("TOTALACHIEVEDQUESTS");
+                    rerolls = resultSet.getInt("REROLLS");
+                    slots.clear();
+                    questIds.clear();
+                    questIndexes.clear();
+                    advancements.clear();
+                    achieved.clear();
+                }
+
+                final int slot = resultSet.getInt("PLAYERQUESTID");
+                if (resultSet.wasNull()) continue;
+
+                slots.add(slot);
+                questIds.add(resultSet.getString("QUESTID"));
+                questIndexes.add(resultSet.getInt("QUESTINDEX"));
+                advancements.add(resultSet.getInt("ADVANCEMENT"));
+                achieved.add(resultSet.getBoolean("ISACHIEVED"));
+            }
+        }
+
+        if (skippedPlayers > 0) {
+            PluginLogger.warn(skippedPlayers + " player(s) could not be converted, they will get new quests.");
+        }
+        return records;
+    }
+
+    /**
+     * Get the UUID of a player from the database, or from the server if it is not stored yet.
+     *
+     * @param storedUniqueId UUID stored in the database, or null.
+     * @param knownUniqueId  UUID known by the server, or null.
+     * @return UUID of the player, or null if unknown.
+     */
+    private static UUID readUniqueId(String storedUniqueId, UUID knownUniqueId) {
+        if (storedUniqueId == null) return knownUniqueId;
+
+        try {
+            return UUID.fromString(storedUniqueId.trim());
+        } catch (IllegalArgumentException e) {
+            return knownUniqueId;
+        }
+    }
+}
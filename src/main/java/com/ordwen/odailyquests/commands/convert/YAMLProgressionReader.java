@@ -0,0 +1,63 @@
+package com.ordwen.odailyquests.commands.convert;
+
+import com.ordwen.odailyquests.ODailyQuests;
+import com.ordwen.odailyquests.configuration.essentials.Modes;
+import com.ordwen.odailyquests.files.ProgressionFile;
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
+import com.ordwen.odailyquests.quests.player.progression.Utils;
+import com.ordwen.odailyquests.quests.player.progression.storage.yaml.LoadProgressionYAML;
+import com.ordwen.odailyquests.quests.player.progression.storage.yaml.PlayerProgressionFiles;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read all the progressions stored in YAML, from the per-player files and from the legacy progression file.
+ */
+public class YAMLProgressionReader {
+
+    /**
+     * Read all the YAML progressions. Per-player files take precedence over the legacy progression file.
+     *
+     * @param oDailyQuests main class instance.
+     * @return player quests, by player name.
+     */
+    public static Map<String, PlayerQuests> readAll(ODailyQuests oDailyQuests) {
+        final Map<String, PlayerQuests> players = new LinkedHashMap<>();
+
+        final PlayerProgressionFiles playerFiles = new PlayerProgressionFiles(oDailyQuests.getDataFolder());
+        for (File file : playerFiles.listFiles()) {
+            final YamlConfiguration playerFile = playerFiles.read(file);
+            if (playerFile == null) continue;
+
+            final String playerName = playerFile.getString("name");
+            if (playerName != null) players.put(playerName, readPlayerQuests(playerName, playerFile));
+        }
+
+        final FileConfiguration progressionFile = ProgressionFile.getProgressionFileConfiguration();
+        if (progressionFile != null) {
+            synchronized (progressionFile) {
+                for (String playerName : progressionFile.getKeys(false)) {
+                    final ConfigurationSection section = progressionFile.getConfigurationSection(playerName);
+                    if (section != null && !players.containsKey(playerName)) {
+                        players.put(playerName, readPlayerQuests(playerName, section));
+                    }
+                }
+            }
+        }
+
+        return players;
+    }
+
+    private static PlayerQuests readPlayerQuests(String playerName, ConfigurationSection section) {
+        final PlayerQuests playerQuests = Utils.buildPlayerQuests(LoadProgressionYAML.readSnapshot(section, playerName), Modes.getQuestsMode());
+
+        /* all the quests are written in the new storage */
+        playerQuests.markAllDirty();
+        return playerQuests;
+    }
+}
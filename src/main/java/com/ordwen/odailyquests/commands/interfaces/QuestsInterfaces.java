@@ -86,7 +86,7 @@ public class QuestsInterfaces {
      * @param emptyCaseItem item for empty-cases.
      * @param quests list of quests.
      */
-    public void loadSelectedInterface(String category, String inventoryName, ItemStack emptyCaseItem, int neededInventories, ArrayList<AbstractQuest> quests) {
+    public void loadSelectedInterface(String category, String inventoryName, ItemStack emptyCaseItem, int neededInventories, List<AbstractQuest> quests) {
 
         boolean allQuestsLoaded = false;
         int currentQuestIndex = 0;
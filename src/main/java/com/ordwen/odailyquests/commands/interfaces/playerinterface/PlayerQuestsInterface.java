@@ -273,15 +273,14 @@ public class PlayerQuestsInterface extends InterfaceItemGetter {
      */
     public static Inventory getPlayerQuestsInterface(Player player) {
 
-        final Map<String, PlayerQuests> activeQuests = QuestsManager.getActiveQuests();
-        if (!activeQuests.containsKey(player.getName())) {
+        final PlayerQuests playerQuests = QuestsManager.getActiveQuests().get(player);
+        if (playerQuests == null) {
             PluginLogger.error("Impossible to find the player " + player.getName() + " in the active quests.");
             PluginLogger.error("It can happen if the player try to open the interface while the server/plugin is reloading.");
             PluginLogger.error("If the problem persist, please contact the developer.");
             return null;
         }
 
-        final PlayerQuests playerQuests = activeQuests.get(player.getName());
         final Map<AbstractQuest, Progression> questsMap = playerQuests.getPlayerQuests();
 
         final Inventory playerQuestsInventoryIndividual = Bukkit.createInventory(null, size, PAPIHook.getPlaceholders(player, interfaceName));
@@ -59,7 +59,7 @@ public class PlayerHead {
                 string = PAPIHook.getPlaceholders(player, string);
             }
 
-            final PlayerQuests playerQuests = QuestsManager.getActiveQuests().get(player.getName());
+            final PlayerQuests playerQuests = QuestsManager.getActiveQuests().get(player);
             itemDesc.set(index, ColorConvert.convertColorCode(string)
                     .replace("%achieved%", String.valueOf(playerQuests.getAchievedQuests()))
                     .replace("%drawIn%", TimeRemain.timeRemain(player.getName())));
@@ -4,6 +4,7 @@ import com.ordwen.odailyquests.ODailyQuests;
 import com.ordwen.odailyquests.configuration.essentials.*;
 import com.ordwen.odailyquests.configuration.functionalities.*;
 import com.ordwen.odailyquests.configuration.functionalities.progression.ActionBar;
+import com.ordwen.odailyquests.configuration.functionalities.progression.LegacyProgressEvents;
 import com.ordwen.odailyquests.configuration.functionalities.progression.ProgressionMessage;
 import com.ordwen.odailyquests.configuration.functionalities.progression.Title;
 import com.ordwen.odailyquests.configuration.functionalities.rewards.CategoriesRewards;
@@ -46,6 +47,9 @@ public class ConfigurationManager {
         new QuestsAmount(configurationFiles).loadQuestsAmount();
         new UseCustomFurnaceResults(configurationFiles).loadUseCustomFurnaceResults();
         new Logs(configurationFiles).loadLogs();
+        new AutoSave(configurationFiles).loadAutoSave();
+        new DeterministicDraws(configurationFiles).loadDeterministicDraws();
+        new Renewal(configurationFiles).loadRenewal();
 
         // functionalities
         new ActionBar(configurationFiles).loadActionbar();
@@ -56,6 +60,7 @@ public class ConfigurationManager {
         new SpawnersProgression(configurationFiles).loadSpawnersProgression();
         new TakeItems(configurationFiles).loadTakeItems();
         new ProgressionMessage(configurationFiles).loadProgressionMessage();
+        new LegacyProgressEvents(configurationFiles).loadLegacyProgressEvents();
 
         // integrations
         new NPCNames(configurationFiles).loadNPCNames();
@@ -0,0 +1,52 @@
+package com.ordwen.odailyquests.configuration.essentials;
+
+import com.ordwen.odailyquests.files.ConfigurationFiles;
+import org.bukkit.configuration.file.FileConfiguration;
+
+public class AutoSave {
+
+    private final ConfigurationFiles configurationFiles;
+
+    private static boolean isEnabled;
+    private static int interval;
+    private static int batchSize;
+
+    public AutoSave(ConfigurationFiles configurationFiles) {
+        this.configurationFiles = configurationFiles;
+    }
+
+    /**
+     * Load the autosave settings.
+     */
+    public void loadAutoSave() {
+        final FileConfiguration config = configurationFiles.getConfigFile();
+
+        isEnabled = config.getBoolean("autosave.enabled", true);
+        interval = Math.max(1, config.getInt("autosave.interval", 300));
+        batchSize = Math.max(1, config.getInt("autosave.batch_size", 20));
+    }
+
+    /**
+     * Check if the autosave is enabled.
+     * @return true if enabled.
+     */
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Get the delay between two autosaves.
+     * @return interval in seconds.
+     */
+    public static int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Get the maximum amount of players saved per tick.
+     * @return batch size.
+     */
+    public static int getBatchSize() {
+        return batchSize;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ordwen.odailyquests.configuration.essentials;
+
+import com.ordwen.odailyquests.files.ConfigurationFiles;
+
+public class DeterministicDraws {
+
+    private final ConfigurationFiles configurationFiles;
+
+    private static boolean isEnabled;
+
+    public DeterministicDraws(ConfigurationFiles configurationFiles) {
+        this.configurationFiles = configurationFiles;
+    }
+
+    /**
+     * Load the deterministic draws setting.
+     */
+    public void loadDeterministicDraws() {
+        isEnabled = configurationFiles.getConfigFile().getBoolean("deterministic_draws");
+    }
+
+    /**
+     * Check if the quests are drawn from a seed derived from the player and the period.
+     * @return true if enabled.
+     */
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+}
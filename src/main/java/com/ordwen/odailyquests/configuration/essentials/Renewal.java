@@ -0,0 +1,69 @@
+package com.ordwen.odailyquests.configuration.essentials;
+
+import com.ordwen.odailyquests.files.ConfigurationFiles;
+import com.ordwen.odailyquests.tools.PluginLogger;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.time.DateTimeException;
+import java.time.ZoneId;
+
+public class Renewal {
+
+    private final ConfigurationFiles configurationFiles;
+
+    /* fixed at the first load, the periods of the stored quests depend on it */
+    private static ZoneId zoneId;
+    private static int sliceBudget;
+
+    public Renewal(ConfigurationFiles configurationFiles) {
+        this.configurationFiles = configurationFiles;
+    }
+
+    /**
+     * Load the renewal settings. The timezone is only applied on the first load, a change requires a restart.
+     */
+    public void loadRenewal() {
+        final FileConfiguration config = configurationFiles.getConfigFile();
+
+        final ZoneId configured = readZoneId(config.getString("renewal.timezone", ""));
+        if (zoneId == null) {
+            zoneId = configured;
+        } else if (!zoneId.equals(configured)) {
+            PluginLogger.warn("The renewal timezone has changed. Restart the server to apply it, " + zoneId + " is still used.");
+        }
+
+        sliceBudget = Math.max(1, config.getInt("renewal.slice_budget", 5));
+    }
+
+    /**
+     * Read the configured timezone.
+     * @param timezone timezone from the configuration.
+     * @return timezone, or the timezone of the machine if it is empty or invalid.
+     */
+    private ZoneId readZoneId(String timezone) {
+        if (timezone == null || timezone.isEmpty()) return ZoneId.systemDefault();
+
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            PluginLogger.error("The renewal timezone " + timezone + " is invalid. The timezone of the machine will be used.");
+            return ZoneId.systemDefault();
+        }
+    }
+
+    /**
+     * Get the timezone of the renewal boundaries.
+     * @return timezone.
+     */
+    public static ZoneId getZoneId() {
+        return zoneId;
+    }
+
+    /**
+     * Get the maximum time spent renewing quests per tick.
+     * @return budget in milliseconds.
+     */
+    public static int getSliceBudget() {
+        return sliceBudget;
+    }
+}
@@ -1,8 +1,15 @@
 package com.ordwen.odailyquests.configuration.functionalities;
 
 import com.ordwen.odailyquests.files.ConfigurationFiles;
+import org.bukkit.World;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 public class DisabledWorlds {
 
@@ -12,15 +19,60 @@ public class DisabledWorlds {
         this.configurationFiles = configurationFiles;
     }
 
-    /* store disabled worlds */
-    private static HashSet<String> disabledWorlds;
+    /* compiled disabled worlds patterns */
+    private static Set<String> exactWorlds = new HashSet<>();
+    private static String[] worldPrefixes = new String[0];
+    private static String[] worldSuffixes = new String[0];
+
+    /* verdict by world, only accessed from the main thread */
+    private static final Map<UUID, Boolean> cache = new HashMap<>();
 
     /**
      * Load disabled worlds.
      */
     public void loadDisabledWorlds() {
-        disabledWorlds = new HashSet<>();
-        disabledWorlds.addAll(configurationFiles.getConfigFile().getStringList("disabled_worlds"));
+        final Set<String> exact = new HashSet<>();
+        final List<String> prefixes = new ArrayList<>();
+        final List<String> suffixes = new ArrayList<>();
+
+        for (String disabledWorld : configurationFiles.getConfigFile().getStringList("disabled_worlds")) {
+            if (disabledWorld.startsWith("?")) {
+                suffixes.add(disabledWorld.substring(1));
+            }
+            else if (disabledWorld.endsWith("?")) {
+                prefixes.add(disabledWorld.substring(0, disabledWorld.length() - 1));
+            }
+            else {
+                exact.add(disabledWorld);
+            }
+        }
+
+        exactWorlds = exact;
+        worldPrefixes = prefixes.toArray(new String[0]);
+        worldSuffixes = suffixes.toArray(new String[0]);
+
+        invalidateCache();
+    }
+
+    /**
+     * Clear the cached verdicts. Called when a world is loaded or unloaded.
+     */
+    public static void invalidateCache() {
+        cache.clear();
+    }
+
+    /**
+     * Check if a world is disabled, using the cached verdict if any.
+     * @param world world to check.
+     * @return true if the world is disabled.
+     */
+    public static boolean isWorldDisabled(World world) {
+        final Boolean cached = cache.get(world.getUID());
+        if (cached != null) return cached;
+
+        final boolean isDisabled = isWorldDisabled(world.getName());
+        cache.put(world.getUID(), isDisabled);
+        return isDisabled;
     }
 
     /**
@@ -29,23 +81,16 @@ public class DisabledWorlds {
      * @return true if the world is disabled.
      */
     public static boolean isWorldDisabled(String world) {
-        boolean isDisabled = false;
-        for (String disabledWorld : disabledWorlds) {
-            if (disabledWorld.startsWith("?")) {
-                final String worldLabel = disabledWorld.substring(1);
-                isDisabled = world.endsWith(worldLabel);
-            }
-            else if (disabledWorld.endsWith("?")) {
-                final String worldLabel = disabledWorld.substring(0, disabledWorld.length() - 1);
-                isDisabled = world.startsWith(worldLabel);
-            }
-            else {
-                isDisabled = world.equals(disabledWorld);
-            }
+        if (exactWorlds.contains(world)) return true;
 
-            if (isDisabled) break;
+        for (String prefix : worldPrefixes) {
+            if (world.startsWith(prefix)) return true;
         }
 
-        return isDisabled;
+        for (String suffix : worldSuffixes) {
+            if (world.endsWith(suffix)) return true;
+        }
+
+        return false;
     }
 }
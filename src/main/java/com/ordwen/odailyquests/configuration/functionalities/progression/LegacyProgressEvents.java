@@ -0,0 +1,27 @@
+package com.ordwen.odailyquests.configuration.functionalities.progression;
+
+import com.ordwen.odailyquests.files.ConfigurationFiles;
+
+public class LegacyProgressEvents {
+
+    private final ConfigurationFiles configurationFiles;
+
+    public LegacyProgressEvents(ConfigurationFiles configurationFiles) {
+        this.configurationFiles = configurationFiles;
+    }
+
+    private static boolean enabled = false;
+
+    public void loadLegacyProgressEvents() {
+        final String path = "legacy_progress_events";
+        enabled = configurationFiles.getConfigFile().getBoolean(path);
+    }
+
+    /**
+     * Check if a QuestProgressEvent must be called for each unit of progress.
+     * @return true if enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+}
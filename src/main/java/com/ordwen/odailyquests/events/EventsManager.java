@@ -4,10 +4,12 @@ import com.ordwen.odailyquests.ODailyQuests;
 import com.ordwen.odailyquests.configuration.essentials.UseCustomFurnaceResults;
 import com.ordwen.odailyquests.configuration.integrations.ItemsAdderEnabled;
 import com.ordwen.odailyquests.configuration.integrations.OraxenEnabled;
+import com.ordwen.odailyquests.enums.QuestType;
 import com.ordwen.odailyquests.events.listeners.customs.CustomFurnaceExtractListener;
 import com.ordwen.odailyquests.events.listeners.integrations.itemsadder.CustomBlockBreakListener;
 import com.ordwen.odailyquests.events.listeners.integrations.itemsadder.ItemsAdderLoadDataListener;
 import com.ordwen.odailyquests.events.listeners.integrations.oraxen.OraxenItemsLoadedListener;
+import com.ordwen.odailyquests.quests.categories.CategoriesLoader;
 import com.ordwen.odailyquests.externs.hooks.mobs.EliteMobsHook;
 import com.ordwen.odailyquests.externs.hooks.mobs.MythicMobsHook;
 import com.ordwen.odailyquests.externs.hooks.stackers.WildStackerHook;
@@ -19,82 +21,152 @@ import com.ordwen.odailyquests.events.listeners.global.*;
 import com.ordwen.odailyquests.events.listeners.inventory.InventoryClickListener;
 import com.ordwen.odailyquests.events.listeners.inventory.InventoryCloseListener;
 import com.ordwen.odailyquests.events.listeners.item.*;
+import com.ordwen.odailyquests.events.listeners.world.WorldLoadListener;
 import org.bukkit.Bukkit;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+
+import java.util.HashSet;
+import java.util.Set;
 
 public class EventsManager {
 
     private final ODailyQuests oDailyQuests;
 
+    /* listeners currently registered */
+    private final Set<Listener> registeredListeners = new HashSet<>();
+
+    // entity listeners
+    private final EntityBreedListener entityBreedListener = new EntityBreedListener();
+    private final EntityTameListener entityTameListener = new EntityTameListener();
+    private final ShearEntityListener shearEntityListener = new ShearEntityListener();
+    private final EntityDeathListener entityDeathListener = new EntityDeathListener();
+    private final SpawnerSpawnListener spawnerSpawnListener = new SpawnerSpawnListener();
+    private final EliteMobDeathListener eliteMobDeathListener;
+    private final MythicMobDeathListener mythicMobDeathListener;
+    private final EntityUnstackListener entityUnstackListener;
+
+    // global listeners
+    private final BucketFillListener bucketFillListener = new BucketFillListener();
+    private final PlayerExpChangeListener playerExpChangeListener = new PlayerExpChangeListener();
+    private final PlayerLevelChangeListener playerLevelChangeListener = new PlayerLevelChangeListener();
+    private final PlayerInteractListener playerInteractListener = new PlayerInteractListener();
+    private final PlayerInteractEntityListener playerInteractEntityListener = new PlayerInteractEntityListener();
+    private final PlayerDeathListener playerDeathListener = new PlayerDeathListener();
+
+    // item listeners
+    private final BlockBreakListener blockBreakListener = new BlockBreakListener();
+    private final BlockPlaceListener blockPlaceListener = new BlockPlaceListener();
+    private final CraftItemListener craftItemListener = new CraftItemListener();
+    private final EnchantItemListener enchantItemListener = new EnchantItemListener();
+    private final FurnaceExtractListener furnaceExtractListener = new FurnaceExtractListener();
+    private final PickupItemListener pickupItemListener = new PickupItemListener();
+    private final PlayerFishListener playerFishListener = new PlayerFishListener();
+    private final PlayerItemConsumeListener playerItemConsumeListener = new PlayerItemConsumeListener();
+    private final ProjectileLaunchListener projectileLaunchListener = new ProjectileLaunchListener();
+    private final BlockDropItemListener blockDropItemListener = new BlockDropItemListener();
+    private final PlayerHarvestBlockListener playerHarvestBlockListener = new PlayerHarvestBlockListener();
+    private final PlayerDropItemListener playerDropItemListener = new PlayerDropItemListener();
+
+    // inventory listeners
+    private final InventoryClickListener inventoryClickListener = new InventoryClickListener();
+    private final InventoryCloseListener inventoryCloseListener = new InventoryCloseListener();
+
+    // world listeners
+    private final WorldLoadListener worldLoadListener = new WorldLoadListener();
+
+    // custom & other plugins listeners
+    private final CustomFurnaceExtractListener customFurnaceExtractListener = new CustomFurnaceExtractListener();
+    private final ItemsAdderLoadDataListener itemsAdderLoadDataListener;
+    private final CustomBlockBreakListener customBlockBreakListener;
+    private final OraxenItemsLoadedListener oraxenItemsLoadedListener;
+
     public EventsManager(ODailyQuests oDailyQuests) {
         this.oDailyQuests = oDailyQuests;
+
+        /* only instantiate hook listeners when the related plugin is present */
+        this.eliteMobDeathListener = EliteMobsHook.isEliteMobsSetup() ? new EliteMobDeathListener() : null;
+        this.mythicMobDeathListener = MythicMobsHook.isMythicMobsSetup() ? new MythicMobDeathListener() : null;
+        this.entityUnstackListener = WildStackerHook.isWildStackerSetup() ? new EntityUnstackListener() : null;
+        this.itemsAdderLoadDataListener = ItemsAdderEnabled.isEnabled() ? new ItemsAdderLoadDataListener(oDailyQuests) : null;
+        this.customBlockBreakListener = ItemsAdderEnabled.isEnabled() ? new CustomBlockBreakListener() : null;
+        this.oraxenItemsLoadedListener = OraxenEnabled.isEnabled() ? new OraxenItemsLoadedListener(oDailyQuests) : null;
     }
 
     /**
-     * Registers all events.
+     * Registers the listeners required by the loaded quests, and unregisters the others.
+     * Can be called again after the quests have been reloaded.
      */
     public void registerListeners() {
+        if (!oDailyQuests.isEnabled()) return;
 
-        // entity events
-        Bukkit.getPluginManager().registerEvents(new EntityBreedListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new EntityTameListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new ShearEntityListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new EntityDeathListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new SpawnerSpawnListener(), oDailyQuests);
-        //Bukkit.getPluginManager().registerEvents(new ProjectileHitListener(), oDailyQuests);
-
-        if (EliteMobsHook.isEliteMobsSetup()) {
-            Bukkit.getPluginManager().registerEvents(new EliteMobDeathListener(), oDailyQuests);
-        }
-
-        if (MythicMobsHook.isMythicMobsSetup()) {
-            Bukkit.getPluginManager().registerEvents(new MythicMobDeathListener(), oDailyQuests);
-        }
+        final Set<QuestType> types = CategoriesLoader.getLoadedQuestTypes();
 
-        if (WildStackerHook.isWildStackerSetup()) {
-            Bukkit.getPluginManager().registerEvents(new EntityUnstackListener(), oDailyQuests);
-        }
+        // entity events
+        setRegistered(entityBreedListener, types.contains(QuestType.BREED));
+        setRegistered(entityTameListener, types.contains(QuestType.TAME));
+        setRegistered(shearEntityListener, types.contains(QuestType.SHEAR));
+        setRegistered(entityDeathListener, types.contains(QuestType.KILL));
+        setRegistered(spawnerSpawnListener, types.contains(QuestType.KILL));
+        setRegistered(eliteMobDeathListener, types.contains(QuestType.CUSTOM_MOBS));
+        setRegistered(mythicMobDeathListener, types.contains(QuestType.CUSTOM_MOBS));
+        setRegistered(entityUnstackListener, types.contains(QuestType.KILL));
 
         // global events
-        Bukkit.getPluginManager().registerEvents(new BucketFillListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new PlayerExpChangeListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new PlayerLevelChangeListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new PlayerInteractListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new PlayerInteractEntityListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new PlayerDeathListener(), oDailyQuests);
+        setRegistered(bucketFillListener, types.contains(QuestType.MILKING));
+        setRegistered(playerExpChangeListener, types.contains(QuestType.EXP_POINTS));
+        setRegistered(playerLevelChangeListener, types.contains(QuestType.EXP_LEVELS));
+        setRegistered(playerInteractListener, types.contains(QuestType.CARVE));
+        setRegistered(playerInteractEntityListener, types.contains(QuestType.VILLAGER_TRADE));
+        setRegistered(playerDeathListener, types.contains(QuestType.PLAYER_DEATH));
 
         // item events
-        Bukkit.getPluginManager().registerEvents(new BlockBreakListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new BlockPlaceListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new CraftItemListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new EnchantItemListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new FurnaceExtractListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new PickupItemListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new PlayerFishListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new PlayerItemConsumeListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new ProjectileLaunchListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new InventoryClickListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new BlockDropItemListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new PlayerHarvestBlockListener(), oDailyQuests);
-        Bukkit.getPluginManager().registerEvents(new PlayerDropItemListener(), oDailyQuests);
+        setRegistered(blockBreakListener, types.contains(QuestType.BREAK));
+        /* also stores placed blocks, used by anti-glitch on break and farming */
+        setRegistered(blockPlaceListener, types.contains(QuestType.PLACE) || types.contains(QuestType.BREAK) || types.contains(QuestType.FARMING));
+        setRegistered(craftItemListener, types.contains(QuestType.CRAFT));
+        setRegistered(enchantItemListener, types.contains(QuestType.ENCHANT));
+        setRegistered(furnaceExtractListener, types.contains(QuestType.COOK));
+        setRegistered(pickupItemListener, types.contains(QuestType.PICKUP));
+        setRegistered(playerFishListener, types.contains(QuestType.FISH));
+        setRegistered(playerItemConsumeListener, types.contains(QuestType.CONSUME));
+        setRegistered(projectileLaunchListener, types.contains(QuestType.LAUNCH));
+        /* also stores broken blocks, used by anti-glitch on place */
+        setRegistered(blockDropItemListener, types.contains(QuestType.FARMING) || types.contains(QuestType.PLACE));
+        setRegistered(playerHarvestBlockListener, types.contains(QuestType.FARMING));
+        /* only stores dropped items, used by anti-glitch on pickup */
+        setRegistered(playerDropItemListener, types.contains(QuestType.PICKUP));
 
         // inventory events
-        Bukkit.getPluginManager().registerEvents(new InventoryCloseListener(), oDailyQuests);
+        setRegistered(inventoryClickListener, true);
+        setRegistered(inventoryCloseListener, types.contains(QuestType.VILLAGER_TRADE));
+
+        // world events
+        setRegistered(worldLoadListener, true);
 
         // custom events
-        if (ItemsAdderEnabled.isEnabled()
-                || OraxenEnabled.isEnabled()
-                || UseCustomFurnaceResults.isEnabled()) {
-            Bukkit.getPluginManager().registerEvents(new CustomFurnaceExtractListener(), oDailyQuests);
-        }
+        setRegistered(customFurnaceExtractListener, types.contains(QuestType.COOK)
+                && (ItemsAdderEnabled.isEnabled() || OraxenEnabled.isEnabled() || UseCustomFurnaceResults.isEnabled()));
 
         // other plugins events
-        if (ItemsAdderEnabled.isEnabled()) {
-            Bukkit.getPluginManager().registerEvents(new ItemsAdderLoadDataListener(oDailyQuests), oDailyQuests);
-            Bukkit.getPluginManager().registerEvents(new CustomBlockBreakListener(), oDailyQuests);
-        }
+        setRegistered(itemsAdderLoadDataListener, ItemsAdderEnabled.isEnabled());
+        setRegistered(customBlockBreakListener, ItemsAdderEnabled.isEnabled() && types.contains(QuestType.BREAK));
+        setRegistered(oraxenItemsLoadedListener, OraxenEnabled.isEnabled());
+    }
+
+    /**
+     * Register or unregister a listener, if its state has changed.
+     *
+     * @param listener listener to update, ignored if null.
+     * @param required whether the listener must be registered.
+     */
+    private void setRegistered(Listener listener, boolean required) {
+        if (listener == null) return;
 
-        if (OraxenEnabled.isEnabled()) {
-            Bukkit.getPluginManager().registerEvents(new OraxenItemsLoadedListener(oDailyQuests), oDailyQuests);
+        if (required && registeredListeners.add(listener)) {
+            Bukkit.getPluginManager().registerEvents(listener, oDailyQuests);
+        } else if (!required && registeredListeners.remove(listener)) {
+            HandlerList.unregisterAll(listener);
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.customs;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.events.customs.CustomFurnaceExtractEvent;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractItemChecker;
 import org.bukkit.event.EventHandler;
@@ -11,6 +12,8 @@ public class CustomFurnaceExtractListener extends AbstractItemChecker implements
 
     @EventHandler
     public void onCustomFurnaceExtractEvent(CustomFurnaceExtractEvent event) {
+        if (!QuestsManager.hasActiveQuestType(event.getPlayer(), QuestType.COOK)) return;
+
         final ItemStack result = event.getResult();
         setPlayerQuestProgression(event.getPlayer(), result, event.getAmount(), QuestType.COOK, null);
     }
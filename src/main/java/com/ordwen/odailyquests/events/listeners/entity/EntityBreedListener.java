@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.entity;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractEntityChecker;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -14,6 +15,7 @@ public class EntityBreedListener extends AbstractEntityChecker implements Listen
         if (event.isCancelled()) return;
 
         if (event.getBreeder() != null && event.getBreeder() instanceof Player player) {
+            if (!QuestsManager.hasActiveQuestType(player, QuestType.BREED)) return;
             setPlayerQuestProgression(player, event.getEntityType(), null, 1, QuestType.BREED, null);
         }
     }
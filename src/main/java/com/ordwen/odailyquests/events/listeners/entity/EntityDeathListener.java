@@ -3,6 +3,7 @@ package com.ordwen.odailyquests.events.listeners.entity;
 import com.ordwen.odailyquests.configuration.integrations.WildStackerEnabled;
 import com.ordwen.odailyquests.events.antiglitch.EntitySource;
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.externs.hooks.mobs.MythicMobsHook;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractEntityChecker;
 import io.lumine.mythic.bukkit.MythicBukkit;
@@ -19,17 +20,18 @@ public class EntityDeathListener extends AbstractEntityChecker implements Listen
     public void onEntityDeathEvent(EntityDeathEvent event) {
         final LivingEntity entity = event.getEntity();
 
-        if (MythicMobsHook.isMythicMobsSetup()) {
-            final ActiveMob mythicMob = MythicBukkit.inst().getMobManager().getActiveMob(entity.getUniqueId()).orElse(null);
-            if (mythicMob != null) return;
-        }
-
         final boolean isEntityFromSpawner = EntitySource.isEntityFromSpawner(entity);
         EntitySource.removeEntityFromSpawner(entity);
 
         if (WildStackerEnabled.isEnabled()) return;
         if (entity.getKiller() == null) return;
         if (isEntityFromSpawner) return;
+        if (!QuestsManager.hasActiveQuestType(entity.getKiller(), QuestType.KILL)) return;
+
+        if (MythicMobsHook.isMythicMobsSetup()) {
+            final ActiveMob mythicMob = MythicBukkit.inst().getMobManager().getActiveMob(entity.getUniqueId()).orElse(null);
+            if (mythicMob != null) return;
+        }
 
         setPlayerQuestProgression(entity.getKiller(), event.getEntityType(), null, 1, QuestType.KILL, null);
     }
@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.entity;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractEntityChecker;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Sheep;
@@ -13,6 +14,7 @@ public class ShearEntityListener extends AbstractEntityChecker implements Listen
     @EventHandler
     public void onShearEntityEvent(PlayerShearEntityEvent event) {
         if (event.isCancelled()) return;
+        if (!QuestsManager.hasActiveQuestType(event.getPlayer(), QuestType.SHEAR)) return;
 
         final Entity entity = event.getEntity();
         if (entity instanceof Sheep sheep) {
@@ -2,6 +2,7 @@ package com.ordwen.odailyquests.events.listeners.entity.custom.mobs;
 
 import com.magmaguy.elitemobs.api.EliteMobDeathEvent;
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractEntityChecker;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -11,6 +12,7 @@ public class EliteMobDeathListener extends AbstractEntityChecker implements List
     @EventHandler
     public void onEliteMobsDeathEvent(EliteMobDeathEvent event) {
         if (event.getEntityDeathEvent().getEntity().getKiller() != null) {
+            if (!QuestsManager.hasActiveQuestType(event.getEntityDeathEvent().getEntity().getKiller(), QuestType.CUSTOM_MOBS)) return;
             setPlayerQuestProgression(event.getEntityDeathEvent().getEntity().getKiller(), null, event.getEliteEntity().getName().substring(event.getEliteEntity().getName().indexOf(' ')+1), 1, QuestType.CUSTOM_MOBS, null);
         }
     }
@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.global;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractGlobalChecker;
 import org.bukkit.Material;
 import org.bukkit.event.EventHandler;
@@ -12,6 +13,7 @@ public class BucketFillListener extends AbstractGlobalChecker implements Listene
     @EventHandler
     public void onPlayerBucketFill(PlayerBucketFillEvent event) {
         if (event.isCancelled()) return;
+        if (!QuestsManager.hasActiveQuestType(event.getPlayer(), QuestType.MILKING)) return;
 
         if (event.getItemStack().getType() == Material.MILK_BUCKET) {
             setPlayerQuestProgression(event.getPlayer(), 1, QuestType.MILKING);
@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.global;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractGlobalChecker;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -11,6 +12,7 @@ public class PlayerDeathListener extends AbstractGlobalChecker implements Listen
     @EventHandler
     public void onPlayerDeath(PlayerDeathEvent event) {
 //        event.getEntity().getLastDamageCause().getCause()
+        if (!QuestsManager.hasActiveQuestType(event.getEntity(), QuestType.PLAYER_DEATH)) return;
         setPlayerQuestProgression(event.getEntity(), 1, QuestType.PLAYER_DEATH);
     }
 }
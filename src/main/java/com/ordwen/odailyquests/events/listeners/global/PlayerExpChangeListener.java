@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.global;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractGlobalChecker;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -10,6 +11,7 @@ public class PlayerExpChangeListener extends AbstractGlobalChecker implements Li
 
     @EventHandler
     public void onPlayerExpChangeEvent(PlayerExpChangeEvent event) {
+        if (!QuestsManager.hasActiveQuestType(event.getPlayer(), QuestType.EXP_POINTS)) return;
         setPlayerQuestProgression(event.getPlayer(), event.getAmount(), QuestType.EXP_POINTS);
     }
 }
@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.global;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractGlobalChecker;
 import org.bukkit.Material;
 import org.bukkit.event.EventHandler;
@@ -14,6 +15,7 @@ public class PlayerInteractListener extends AbstractGlobalChecker implements Lis
     public void onPlayerInteract(PlayerInteractEvent event) {
 
         if (!(event.getAction() == Action.RIGHT_CLICK_BLOCK)) return;
+        if (!QuestsManager.hasActiveQuestType(event.getPlayer(), QuestType.CARVE)) return;
         if (!(event.getClickedBlock().getType() == Material.PUMPKIN)) return;
         if (!(event.getPlayer().getInventory().getItemInMainHand().getType() == Material.SHEARS)) return;
 
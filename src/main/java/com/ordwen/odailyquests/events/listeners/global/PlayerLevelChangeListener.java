@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.global;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractGlobalChecker;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -11,6 +12,6 @@ public class PlayerLevelChangeListener extends AbstractGlobalChecker implements
     @EventHandler
     public void onPlayerLevelChangeEvent(PlayerLevelChangeEvent event) {
         final int diff = event.getNewLevel() - event.getOldLevel();
-        if (diff > 0) setPlayerQuestProgression(event.getPlayer(), diff, QuestType.EXP_LEVELS);
+        if (diff > 0 && QuestsManager.hasActiveQuestType(event.getPlayer(), QuestType.EXP_LEVELS)) setPlayerQuestProgression(event.getPlayer(), diff, QuestType.EXP_LEVELS);
     }
 }
@@ -2,6 +2,7 @@ package com.ordwen.odailyquests.events.listeners.integrations.itemsadder;
 
 import com.ordwen.odailyquests.configuration.essentials.Antiglitch;
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractItemChecker;
 import dev.lone.itemsadder.api.Events.CustomBlockBreakEvent;
 import org.bukkit.block.Block;
@@ -18,6 +19,8 @@ public class CustomBlockBreakListener extends AbstractItemChecker implements Lis
         if (event.isCancelled()) return;
 
         final Player player = event.getPlayer();
+        if (!QuestsManager.hasActiveQuestType(player, QuestType.BREAK)) return;
+
         final Block block = event.getBlock();
 
         AtomicBoolean valid = new AtomicBoolean(true);
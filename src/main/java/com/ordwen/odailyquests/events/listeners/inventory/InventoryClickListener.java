@@ -3,6 +3,8 @@ package com.ordwen.odailyquests.events.listeners.inventory;
 import com.ordwen.odailyquests.commands.interfaces.playerinterface.PlayerQuestsInterface;
 import com.ordwen.odailyquests.configuration.essentials.UseCustomFurnaceResults;
 import com.ordwen.odailyquests.events.customs.CustomFurnaceExtractEvent;
+import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractClickableChecker;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
@@ -34,6 +36,7 @@ public class InventoryClickListener extends AbstractClickableChecker implements
 
         // check if player is trading
         if (event.getInventory().getType() == InventoryType.MERCHANT && event.getSlotType() == InventoryType.SlotType.RESULT) {
+            if (!QuestsManager.hasActiveQuestType(player, QuestType.VILLAGER_TRADE)) return;
 
             final MerchantInventory merchantInventory = (MerchantInventory) event.getClickedInventory();
             if (event.getClickedInventory().getHolder() instanceof Villager villager) {
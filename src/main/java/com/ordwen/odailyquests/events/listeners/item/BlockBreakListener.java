@@ -3,6 +3,7 @@ package com.ordwen.odailyquests.events.listeners.item;
 import com.ordwen.odailyquests.configuration.essentials.Antiglitch;
 import com.ordwen.odailyquests.configuration.integrations.ItemsAdderEnabled;
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractItemChecker;
 import dev.lone.itemsadder.api.CustomBlock;
 import org.bukkit.Material;
@@ -23,6 +24,8 @@ public class BlockBreakListener extends AbstractItemChecker implements Listener
         if (event.isCancelled()) return;
 
         final Player player = event.getPlayer();
+        if (!QuestsManager.hasActiveQuestType(player, QuestType.BREAK)) return;
+
         final Block block = event.getBlock();
 
         if (ItemsAdderEnabled.isEnabled()) {
@@ -2,6 +2,7 @@ package com.ordwen.odailyquests.events.listeners.item;
 
 import com.ordwen.odailyquests.configuration.essentials.Antiglitch;
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractItemChecker;
 import org.bukkit.Material;
 import org.bukkit.block.data.Ageable;
@@ -40,8 +41,10 @@ public class BlockDropItemListener extends AbstractItemChecker implements Listen
         final BlockData data = event.getBlockState().getBlockData();
         final Material dataMaterial = data.getMaterial();
 
+        final boolean hasFarmingQuest = QuestsManager.hasActiveQuestType(event.getPlayer(), QuestType.FARMING);
+
         // check if the dropped item figure in the non-crops items list
-        if (farmableItems.contains(data.getMaterial())) {
+        if (hasFarmingQuest && farmableItems.contains(data.getMaterial())) {
 
             final AtomicBoolean valid = new AtomicBoolean(true);
 
@@ -87,7 +90,7 @@ public class BlockDropItemListener extends AbstractItemChecker implements Listen
         }
 
         // check if the dropped item is a crop
-        else if (data instanceof Ageable ageable) {
+        else if (hasFarmingQuest && data instanceof Ageable ageable) {
 
             if (ageable.getAge() == ageable.getMaximumAge()) {
 
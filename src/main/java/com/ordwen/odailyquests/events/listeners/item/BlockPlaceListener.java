@@ -3,6 +3,7 @@ package com.ordwen.odailyquests.events.listeners.item;
 import com.ordwen.odailyquests.ODailyQuests;
 import com.ordwen.odailyquests.configuration.essentials.Antiglitch;
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractItemChecker;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
@@ -24,9 +25,9 @@ public class BlockPlaceListener extends AbstractItemChecker implements Listener
         final Player player = event.getPlayer();
         final Block block = event.getBlock();
 
-        boolean valid = true;
+        boolean valid = QuestsManager.hasActiveQuestType(player, QuestType.PLACE);
 
-        if (Antiglitch.isStoreBrokenBlocks()) {
+        if (valid && Antiglitch.isStoreBrokenBlocks()) {
             final ItemStack placedItem = player.getInventory().getItemInMainHand();
             final ItemMeta placedItemMeta = placedItem.getItemMeta();
 
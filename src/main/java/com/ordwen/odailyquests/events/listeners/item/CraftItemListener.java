@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.item;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractItemChecker;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -22,6 +23,7 @@ public class CraftItemListener extends AbstractItemChecker implements Listener {
 
         ItemStack test;
         final Player player = (Player) event.getWhoClicked();
+        if (!QuestsManager.hasActiveQuestType(player, QuestType.CRAFT)) return;
 
         if (event.getRecipe() instanceof ComplexRecipe complexRecipe) {
             switch (complexRecipe.getKey().getKey().toUpperCase()) {
@@ -3,6 +3,7 @@ package com.ordwen.odailyquests.events.listeners.item;
 import com.ordwen.odailyquests.configuration.essentials.UseCustomFurnaceResults;
 import com.ordwen.odailyquests.configuration.integrations.ItemsAdderEnabled;
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractItemChecker;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -14,6 +15,7 @@ public class FurnaceExtractListener extends AbstractItemChecker implements Liste
     @EventHandler
     public void onFurnaceExtractEvent(FurnaceExtractEvent event) {
         if (UseCustomFurnaceResults.isEnabled()) return;
+        if (!QuestsManager.hasActiveQuestType(event.getPlayer(), QuestType.COOK)) return;
         setPlayerQuestProgression(event.getPlayer(), new ItemStack(event.getItemType()), event.getItemAmount(), QuestType.COOK, null);
     }
 }
@@ -2,6 +2,7 @@ package com.ordwen.odailyquests.events.listeners.item;
 
 import com.ordwen.odailyquests.configuration.essentials.Antiglitch;
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractItemChecker;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -18,6 +19,7 @@ public class PickupItemListener extends AbstractItemChecker implements Listener
         if (event.isCancelled()) return;
 
         if (event.getEntity() instanceof Player player) {
+            if (!QuestsManager.hasActiveQuestType(player, QuestType.PICKUP)) return;
 
             final ItemStack item = event.getItem().getItemStack();
 
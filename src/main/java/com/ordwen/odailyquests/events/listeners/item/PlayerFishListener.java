@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.item;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractItemChecker;
 import org.bukkit.entity.Item;
 import org.bukkit.event.EventHandler;
@@ -12,6 +13,7 @@ public class PlayerFishListener extends AbstractItemChecker implements Listener
     @EventHandler
     public void onPlayerFishEvent(PlayerFishEvent event) {
         if (event.isCancelled()) return;
+        if (!QuestsManager.hasActiveQuestType(event.getPlayer(), QuestType.FISH)) return;
 
         if (event.getState() == PlayerFishEvent.State.CAUGHT_FISH && event.getCaught() instanceof Item item) {
             setPlayerQuestProgression(event.getPlayer(), item.getItemStack(), 1, QuestType.FISH, null);
@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.item;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractItemChecker;
 import org.bukkit.Material;
 import org.bukkit.block.data.Ageable;
@@ -17,6 +18,7 @@ public class PlayerHarvestBlockListener extends AbstractItemChecker implements L
     @EventHandler
     public void onPlayerHarvestBlock(PlayerHarvestBlockEvent event) {
         if (event.isCancelled()) return;
+        if (!QuestsManager.hasActiveQuestType(event.getPlayer(), QuestType.FARMING)) return;
 
         final BlockData data = event.getHarvestedBlock().getBlockData();
         if (data instanceof Ageable ageable) {
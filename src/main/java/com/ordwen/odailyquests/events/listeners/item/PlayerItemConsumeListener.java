@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.item;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractItemChecker;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -11,6 +12,7 @@ public class PlayerItemConsumeListener extends AbstractItemChecker implements Li
     @EventHandler
     public void onItemConsumeEvent(PlayerItemConsumeEvent event) {
         if (event.isCancelled()) return;
+        if (!QuestsManager.hasActiveQuestType(event.getPlayer(), QuestType.CONSUME)) return;
 
         setPlayerQuestProgression(event.getPlayer(), event.getItem(), 1, QuestType.CONSUME, null);
     }
@@ -1,6 +1,7 @@
 package com.ordwen.odailyquests.events.listeners.item;
 
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.checkers.AbstractItemChecker;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -15,9 +16,10 @@ public class ProjectileLaunchListener extends AbstractItemChecker implements Lis
     public void onProjectileLaunch(ProjectileLaunchEvent event) {
         if (event.isCancelled()) return;
 
-        final String id = String.valueOf(event.getEntity().getUniqueId());
-
         if (event.getEntity().getShooter() instanceof Player player) {
+            if (!QuestsManager.hasActiveQuestType(player, QuestType.LAUNCH)) return;
+
+            final String id = String.valueOf(event.getEntity().getUniqueId());
             switch (event.getEntity().getType()) {
                 case ENDER_PEARL -> setPlayerQuestProgression(player, new ItemStack(Material.ENDER_PEARL), 1, QuestType.LAUNCH, id);
                 case EGG -> setPlayerQuestProgression(player, new ItemStack(Material.EGG), 1, QuestType.LAUNCH, id);
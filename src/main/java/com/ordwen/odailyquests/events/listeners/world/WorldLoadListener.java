@@ -0,0 +1,22 @@
+package com.ordwen.odailyquests.events.listeners.world;
+
+import com.ordwen.odailyquests.configuration.functionalities.DisabledWorlds;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+public class WorldLoadListener implements Listener {
+
+    /* Clear the disabled worlds cache when the loaded worlds change */
+    @EventHandler
+    public void onWorldLoadEvent(WorldLoadEvent event) {
+        DisabledWorlds.invalidateCache();
+    }
+
+    @EventHandler
+    public void onWorldUnloadEvent(WorldUnloadEvent event) {
+        if (event.isCancelled()) return;
+        DisabledWorlds.invalidateCache();
+    }
+}
@@ -31,7 +31,7 @@ public class HolographicDisplaysHook {
      * @param list where to find the quest
      * @param player sender
      */
-    public static void createHologram(int index, ArrayList<AbstractQuest> list, Player player) {
+    public static void createHologram(int index, List<AbstractQuest> list, Player player) {
         AbstractQuest quest = getQuest(index, list);
 
         if (quest != null) {
@@ -81,7 +81,7 @@ public class HolographicDisplaysHook {
      * @param quests list where find the quest
      * @return the quest
      */
-    private static AbstractQuest getQuest(int index, ArrayList<AbstractQuest> quests) {
+    private static AbstractQuest getQuest(int index, List<AbstractQuest> quests) {
         if (index >= 0 && quests.size()-1 >= index) {
             return quests.get(index);
         } else return null;
@@ -12,7 +12,7 @@ import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
 
-import java.util.ArrayList;
+import java.util.List;
 
 public class PAPIExpansion extends PlaceholderExpansion {
 
@@ -43,8 +43,8 @@ public class PAPIExpansion extends PlaceholderExpansion {
     @Override
     public String onRequest(OfflinePlayer player, String params) {
 
-        if (!QuestsManager.getActiveQuests().containsKey(player.getName())) return null;
-        final PlayerQuests playerQuests = QuestsManager.getActiveQuests().get(player.getName());
+        final PlayerQuests playerQuests = QuestsManager.getActiveQuests().get(player.getUniqueId());
+        if (playerQuests == null) return null;
 
         // player placeholders
         if (params.equalsIgnoreCase("total")) {
@@ -134,15 +134,8 @@ public class PAPIExpansion extends PlaceholderExpansion {
             return ChatColor.RED + "Invalid index.";
         }
 
-        int i = 0;
-        for (AbstractQuest quest : playerQuests.getPlayerQuests().keySet()) {
-            if (i == index) {
-                return String.valueOf(playerQuests.getPlayerQuests().get(quest).isAchieved());
-            }
-            i++;
-        }
-
-        return ChatColor.RED + "Invalid index.";
+        if (!isValidSlot(index, playerQuests)) return ChatColor.RED + "Invalid index.";
+        return String.valueOf(playerQuests.isAchieved(index));
     }
 
     /**
@@ -153,17 +146,11 @@ public class PAPIExpansion extends PlaceholderExpansion {
      */
     private String getQuestStatus(int index, PlayerQuests playerQuests) {
 
-        int i = 0;
-        for (AbstractQuest quest : playerQuests.getPlayerQuests().keySet()) {
-            if (i == index) {
-                return (playerQuests.getPlayerQuests().get(quest).isAchieved() ? PlayerQuestsInterface.getAchieved() : PlayerQuestsInterface.getProgression())
-                        .replace("%progress%", String.valueOf(playerQuests.getPlayerQuests().get(quest).getProgression()))
-                        .replace("%required%", String.valueOf(quest.getAmountRequired()));
-            }
-            i++;
-        }
+        if (!isValidSlot(index, playerQuests)) return ChatColor.RED + "Invalid index.";
 
-        return ChatColor.RED + "Invalid index.";
+        return (playerQuests.isAchieved(index) ? PlayerQuestsInterface.getAchieved() : PlayerQuestsInterface.getProgression())
+                .replace("%progress%", String.valueOf(playerQuests.getProgress(index)))
+                .replace("%required%", String.valueOf(playerQuests.getQuest(index).getAmountRequired()));
     }
 
     /**
@@ -180,15 +167,8 @@ public class PAPIExpansion extends PlaceholderExpansion {
             return ChatColor.RED + "Invalid index.";
         }
 
-        int i = 0;
-        for (AbstractQuest quest : playerQuests.getPlayerQuests().keySet()) {
-            if (i == index) {
-                return quest.getQuestName();
-            }
-            i++;
-        }
-
-        return ChatColor.RED + "Invalid index.";
+        if (!isValidSlot(index, playerQuests)) return ChatColor.RED + "Invalid index.";
+        return playerQuests.getQuest(index).getQuestName();
     }
 
     /**
@@ -205,15 +185,8 @@ public class PAPIExpansion extends PlaceholderExpansion {
             return ChatColor.RED + "Invalid index.";
         }
 
-        int i = 0;
-        for (AbstractQuest quest : playerQuests.getPlayerQuests().keySet()) {
-            if (i == index) {
-                return String.valueOf(quest.getAmountRequired());
-            }
-            i++;
-        }
-
-        return ChatColor.RED + "Invalid index.";
+        if (!isValidSlot(index, playerQuests)) return ChatColor.RED + "Invalid index.";
+        return String.valueOf(playerQuests.getQuest(index).getAmountRequired());
     }
 
     /**
@@ -237,16 +210,11 @@ public class PAPIExpansion extends PlaceholderExpansion {
             return ChatColor.RED + "Invalid line.";
         }
 
-        int i = 0;
-        for (AbstractQuest quest : playerQuests.getPlayerQuests().keySet()) {
-            if (i == index) {
-                if (line <= quest.getQuestDesc().size()) return quest.getQuestDesc().get(line);
-                else return ChatColor.RED + "Invalid line.";
-            }
-            i++;
-        }
+        if (!isValidSlot(index, playerQuests)) return ChatColor.RED + "Invalid index.";
 
-        return ChatColor.RED + "Invalid index.";
+        final AbstractQuest quest = playerQuests.getQuest(index);
+        if (line <= quest.getQuestDesc().size()) return quest.getQuestDesc().get(line);
+        else return ChatColor.RED + "Invalid line.";
     }
 
     /**
@@ -264,14 +232,18 @@ public class PAPIExpansion extends PlaceholderExpansion {
             return -1;
         }
 
-        int i = 0;
-        for (AbstractQuest quest : playerQuests.getPlayerQuests().keySet()) {
-            if (i == index) {
-                return playerQuests.getPlayerQuests().get(quest).getProgression();
-            }
-            i++;
-        }
-        return -1;
+        if (!isValidSlot(index, playerQuests)) return -1;
+        return playerQuests.getProgress(index);
+    }
+
+    /**
+     * Check if the index matches a quest of the player.
+     * @param index the quest index.
+     * @param playerQuests the player quests.
+     * @return true if the index is valid.
+     */
+    private boolean isValidSlot(int index, PlayerQuests playerQuests) {
+        return index >= 0 && index < playerQuests.getQuestsCount();
     }
 
     /**
@@ -281,7 +253,7 @@ public class PAPIExpansion extends PlaceholderExpansion {
      * @param quests list where find the quest
      * @return the name of the quest
      */
-    private String getQuestName(String params, ArrayList<AbstractQuest> quests) {
+    private String getQuestName(String params, List<AbstractQuest> quests) {
         int index;
         try {
             index = Integer.parseInt(params.substring(params.indexOf("_") + 1)) - 1;
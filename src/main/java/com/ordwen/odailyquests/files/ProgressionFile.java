@@ -29,7 +29,7 @@ public class ProgressionFile {
 
     /**
      * Get the configuration file.
-     * @return config file.
+     * @return config file, or null if there is no player left to migrate from it.
      */
     public static FileConfiguration getProgressionFileConfiguration() {
         return progression;
@@ -42,26 +42,55 @@ public class ProgressionFile {
     public static File getProgressionFile() { return progressionFile; }
 
     /**
-     * Init progression file.
+     * Init progression file. It is only read to migrate the players to their own file, so it is not loaded if there is no player left in it.
      */
     public void loadProgressionFile() {
 
         progressionFile = new File(oDailyQuests.getDataFolder(), "progression.yml");
+        progression = null;
 
-        if (!progressionFile.exists()) {
-            oDailyQuests.saveResource("progression.yml", false);
-            PluginLogger.info("Progression file created (YAML).");
-        }
+        if (!progressionFile.exists()) return;
 
-        progression = new YamlConfiguration();
+        final YamlConfiguration configuration = new YamlConfiguration();
 
         try {
-            progression.load(progressionFile);
+            configuration.load(progressionFile);
             PluginLogger.fine("Progression file successfully loaded (YAML).");
         } catch (InvalidConfigurationException | IOException e) {
             PluginLogger.error("An error occurred on the load of the progression file.");
             PluginLogger.error("Please inform the developer.");
             e.printStackTrace();
+            return;
+        }
+
+        if (!configuration.getKeys(false).isEmpty()) progression = configuration;
+    }
+
+    /**
+     * Remove a player migrated to its own file from the progression file.
+     * The file is no longer kept in memory once the last player has been removed. Can be called from any thread.
+     * @param playerName name of the player.
+     */
+    public static void removePlayer(String playerName) {
+        final FileConfiguration configuration = progression;
+        if (configuration == null) return;
+
+        /* the file configuration is shared with the loads and the converters */
+        synchronized (configuration) {
+            if (!configuration.contains(playerName)) return;
+            configuration.set(playerName, null);
+
+            try {
+                configuration.save(progressionFile);
+            } catch (IOException e) {
+                PluginLogger.error("An error occurred while removing " + playerName + " from the progression file.");
+                e.printStackTrace();
+            }
+
+            if (configuration.getKeys(false).isEmpty()) {
+                progression = null;
+                PluginLogger.info("All the players of the progression file have been migrated to their own file.");
+            }
         }
     }
 }
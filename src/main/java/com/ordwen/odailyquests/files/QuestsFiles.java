@@ -30,11 +30,6 @@ public class QuestsFiles {
     private static File mediumQuestsFile;
     private static File hardQuestsFile;
 
-    private static FileConfiguration globalQuestsConfiguration;
-    private static FileConfiguration easyQuestsConfiguration;
-    private static FileConfiguration mediumQuestsConfiguration;
-    private static FileConfiguration hardQuestsConfiguration;
-
     /**
      * Get the global quests file.
      * @return global quests file.
@@ -68,39 +63,7 @@ public class QuestsFiles {
     }
 
     /**
-     * Get the global quests configuration.
-     * @return global quests configuration.
-     */
-    public static FileConfiguration getGlobalQuestsConfiguration() {
-        return globalQuestsConfiguration;
-    }
-
-    /**
-     * Get the easy quests configuration.
-     * @return easy quests configuration.
-     */
-    public static FileConfiguration getEasyQuestsConfiguration() {
-        return easyQuestsConfiguration;
-    }
-
-    /**
-     * Get the medium quests configuration.
-     * @return medium quests configuration.
-     */
-    public static FileConfiguration getMediumQuestsConfiguration() {
-        return mediumQuestsConfiguration;
-    }
-
-    /**
-     * Get the hard quests configuration.
-     * @return hard quests configuration.
-     */
-    public static FileConfiguration getHardQuestsConfiguration() {
-        return hardQuestsConfiguration;
-    }
-
-    /**
-     * Init quests files.
+     * Init quests files, creating the missing ones.
      */
     public void loadQuestsFiles() {
 
@@ -132,51 +95,26 @@ public class QuestsFiles {
             oDailyQuests.saveResource("quests/hardQuests.yml", false);
             PluginLogger.info("Hard quests file created.");
         }
+    }
 
-        globalQuestsConfiguration = new YamlConfiguration();
-        easyQuestsConfiguration = new YamlConfiguration();
-        mediumQuestsConfiguration = new YamlConfiguration();
-        hardQuestsConfiguration = new YamlConfiguration();
-
-        /* Global quests */
-        try {
-            globalQuestsConfiguration.load(globalQuestsFile);
-        } catch (InvalidConfigurationException | IOException e) {
-            PluginLogger.error("An error occured on the load of the global quests file.");
-            PluginLogger.error("Please inform the developper.");
-            e.printStackTrace();
-        }
-        PluginLogger.fine("Global quests file successfully loaded.");
-
-        /* Easy quests */
-        try {
-            easyQuestsConfiguration.load(easyQuestsFile);
-        } catch (InvalidConfigurationException | IOException e) {
-            PluginLogger.error("An error occured on the load of the easy quests file.");
-            PluginLogger.error("Please inform the developper.");
-            e.printStackTrace();
-        }
-        PluginLogger.fine("Easy quests file successfully loaded.");
+    /**
+     * Load a quests file. Can be called from any thread.
+     * @param file quests file.
+     * @return loaded configuration, empty if the file can't be loaded.
+     */
+    public static FileConfiguration loadQuestsConfiguration(File file) {
+        final YamlConfiguration configuration = new YamlConfiguration();
 
-        /* Medium quests */
         try {
-            mediumQuestsConfiguration.load(mediumQuestsFile);
+            configuration.load(file);
         } catch (InvalidConfigurationException | IOException e) {
-            PluginLogger.error("An error occured on the load of the medium quests file.");
+            PluginLogger.error("An error occured on the load of the " + file.getName() + " file.");
             PluginLogger.error("Please inform the developper.");
             e.printStackTrace();
+            return configuration;
         }
-        PluginLogger.fine("Medium quests file successfully loaded.");
 
-        /* Hard quests */
-        try {
-            hardQuestsConfiguration.load(hardQuestsFile);
-        } catch (InvalidConfigurationException | IOException e) {
-            PluginLogger.error("An error occured on the load of the hard quests file.");
-            PluginLogger.error("Please inform the developper.");
-            e.printStackTrace();
-        }
-        PluginLogger.fine("Hard quests file successfully loaded.");
+        PluginLogger.fine(file.getName() + " file successfully loaded.");
+        return configuration;
     }
-
 }
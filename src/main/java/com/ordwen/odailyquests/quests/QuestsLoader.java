@@ -23,9 +23,30 @@ import org.bukkit.potion.PotionType;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 public class QuestsLoader extends QuestItemGetter {
 
+    /* executor of the steps that must run on the main thread */
+    private final Executor mainThreadExecutor;
+
+    /**
+     * Constructor.
+     *
+     * @param mainThreadExecutor executor of the steps that must run on the main thread, used when quests are loaded from another thread.
+     */
+    public QuestsLoader(Executor mainThreadExecutor) {
+        this.mainThreadExecutor = mainThreadExecutor;
+    }
+
+    @Override
+    protected <T> T callOnMainThread(Supplier<T> step) {
+        if (Bukkit.isPrimaryThread()) return step.get();
+        return awaitMainThread(CompletableFuture.supplyAsync(step, mainThreadExecutor));
+    }
+
     /**
      * Load the reward of a quest.
      *
@@ -72,9 +93,10 @@ public class QuestsLoader extends QuestItemGetter {
      * @param questSection the current quest section.
      * @param fileName     the file name where the quest is.
      * @param questIndex   the quest index in the file.
+     * @param questKey     the quest key in the file.
      * @return the global quest.
      */
-    private GlobalQuest createBasicQuest(ConfigurationSection questSection, String fileName, int questIndex) {
+    private GlobalQuest createBasicQuest(ConfigurationSection questSection, String fileName, int questIndex, String questKey) {
 
         /* quest name */
         String questName = ColorConvert.convertColorCode(questSection.getString(".name"));
@@ -125,7 +147,14 @@ public class QuestsLoader extends QuestItemGetter {
         /* reward */
         Reward reward = createReward(questSection, fileName, questIndex);
 
-        return new GlobalQuest(questIndex, questName, fileName, questDesc, questType, menuItem, achievedItem, requiredAmount, reward, requiredWorlds, usePlaceholders);
+        /* weight */
+        final double weight = questSection.getDouble(".weight", 1);
+        if (!(weight > 0) || Double.isInfinite(weight)) {
+            configurationError(fileName, questIndex, "weight", "The weight must be a number greater than 0.");
+            return null;
+        }
+
+        return new GlobalQuest(questIndex, questKey, questName, fileName, questDesc, questType, menuItem, achievedItem, requiredAmount, reward, requiredWorlds, usePlaceholders, weight);
     }
 
     /**
@@ -374,7 +403,7 @@ public class QuestsLoader extends QuestItemGetter {
 
         if (section == null) {
             configurationError(fileName, questIndex, null, "You need to specify a location.");
-            location = new Location(Bukkit.getWorlds().get(0), 0, 0, 0);
+            location = new Location(callOnMainThread(() -> Bukkit.getWorlds().get(0)), 0, 0, 0);
         } else {
             final String wd = section.getString(".world");
             final int x = section.getInt(".x");
@@ -382,10 +411,10 @@ public class QuestsLoader extends QuestItemGetter {
             final int z = section.getInt(".z");
 
             radius = section.getInt(".radius");
-            final World world = Bukkit.getWorld(wd);
+            final World world = callOnMainThread(() -> Bukkit.getWorld(wd));
             if (world == null) {
                 configurationError(fileName, questIndex, null, "The world specified in the location is not loaded.");
-                location = new Location(Bukkit.getWorlds().get(0), 0, 0, 0);
+                location = new Location(callOnMainThread(() -> Bukkit.getWorlds().get(0)), 0, 0, 0);
             } else {
                 location = new Location(world, x, y, z);
             }
@@ -463,7 +492,7 @@ public class QuestsLoader extends QuestItemGetter {
                 final ConfigurationSection questSection = file.getConfigurationSection("quests." + fileQuest);
                 if (questSection == null) continue;
 
-                final GlobalQuest base = createBasicQuest(questSection, fileName, questIndex);
+                final GlobalQuest base = createBasicQuest(questSection, fileName, questIndex, fileQuest);
                 if (base == null) continue;
 
                 QuestType questType = base.getQuestType();
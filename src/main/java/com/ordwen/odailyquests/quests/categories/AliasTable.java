@@ -0,0 +1,70 @@
+package com.ordwen.odailyquests.quests.categories;
+
+import java.util.Random;
+
+/**
+ * Alias table of weighted indexes, built with Vose's method.
+ * Once built, an index is sampled in constant time, whatever the amount of weights.
+ */
+public final class AliasTable {
+
+    /* probability to keep each column, otherwise its alias is sampled */
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * Build the table of the given weights.
+     *
+     * @param weights weights, all greater than 0.
+     */
+    public AliasTable(double[] weights) {
+        final int size = weights.length;
+        this.probabilities = new double[size];
+        this.aliases = new int[size];
+
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+
+        /* weights scaled so that their average is 1 */
+        final double[] scaled = new double[size];
+        final int[] small = new int[size];
+        final int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            scaled[i] = weights[i] * size / total;
+            if (scaled[i] < 1) small[smallCount++] = i;
+            else large[largeCount++] = i;
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            final int less = small[--smallCount];
+            final int more = large[--largeCount];
+
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) small[smallCount++] = more;
+            else large[largeCount++] = more;
+        }
+
+        /* remaining columns are full, up to rounding errors */
+        while (largeCount > 0) probabilities[large[--largeCount]] = 1;
+        while (smallCount > 0) probabilities[small[--smallCount]] = 1;
+    }
+
+    /**
+     * Sample an index, with a chance proportional to its weight.
+     *
+     * @param random random generator.
+     * @return sampled index.
+     */
+    public int sample(Random random) {
+        final int column = random.nextInt(probabilities.length);
+        return random.nextDouble() < probabilities[column] ? column : aliases[column];
+    }
+}
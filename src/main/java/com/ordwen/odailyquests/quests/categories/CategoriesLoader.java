@@ -1,8 +1,10 @@
 package com.ordwen.odailyquests.quests.categories;
 
 import com.ordwen.odailyquests.ODailyQuests;
+import com.ordwen.odailyquests.configuration.essentials.Debugger;
 import com.ordwen.odailyquests.configuration.essentials.Modes;
 import com.ordwen.odailyquests.configuration.essentials.QuestsAmount;
+import com.ordwen.odailyquests.enums.QuestType;
 import com.ordwen.odailyquests.files.QuestsFiles;
 import com.ordwen.odailyquests.quests.QuestsLoader;
 import com.ordwen.odailyquests.quests.types.AbstractQuest;
@@ -10,71 +12,204 @@ import com.ordwen.odailyquests.tools.PluginLogger;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 public class CategoriesLoader {
 
-    private static final Category globalCategory = new Category("globalQuests");
-    private static final Category easyCategory = new Category("easyQuests");
-    private static final Category mediumCategory = new Category("mediumQuests");
-    private static final Category hardCategory = new Category("hardQuests");
+    /* currently published quests, replaced at once by each load */
+    private static volatile QuestCatalog catalog = QuestCatalog.empty();
 
-    private final QuestsLoader questsLoader = new QuestsLoader();
+    /* incremented by each load, only the latest one is published */
+    private int loadGeneration;
 
     /**
-     * Load all quests from files.
+     * Load all quests from files and publish them, blocking until they are loaded.
+     * Categories are loaded in parallel, while the main thread runs the steps that need the Bukkit API.
      */
     public void loadCategories() {
+        final int generation = ++loadGeneration;
+        final BlockingQueue<Runnable> mainThreadTasks = new LinkedBlockingQueue<>();
 
-        globalCategory.clear();
-        easyCategory.clear();
-        mediumCategory.clear();
-        hardCategory.clear();
+        final CompletableFuture<Category[]> loading = loadCategories(Modes.getQuestsMode(), ForkJoinPool.commonPool(), mainThreadTasks::add);
 
-        /* init files */
-        FileConfiguration globalQuestsFile = QuestsFiles.getGlobalQuestsConfiguration();
-        FileConfiguration easyQuestsFile = QuestsFiles.getEasyQuestsConfiguration();
-        FileConfiguration mediumQuestsFile = QuestsFiles.getMediumQuestsConfiguration();
-        FileConfiguration hardQuestsFile = QuestsFiles.getHardQuestsConfiguration();
+        while (!loading.isDone()) {
+            try {
+                final Runnable task = mainThreadTasks.poll(10, TimeUnit.MILLISECONDS);
+                if (task != null) task.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
 
-        if (Modes.getQuestsMode() == 1) {
+        publish(generation, loading);
+    }
 
-            /* load global quests */
-            questsLoader.loadQuests(globalQuestsFile, globalCategory, "globalQuests");
-            if (globalCategory.size() < QuestsAmount.getQuestsAmount()) {
-                PluginLogger.error("Impossible to enable the plugin.");
-                PluginLogger.error("You need to have at least " + QuestsAmount.getQuestsAmount() + " quests in your globalQuest.yml file.");
-                Bukkit.getPluginManager().disablePlugin(ODailyQuests.INSTANCE);
-            }
+    /**
+     * Load all quests from files in async tasks, then publish them on the main thread.
+     * The previous quests stay in use until then.
+     *
+     * @param onPublished called on the main thread once the new quests are published.
+     */
+    public void loadCategoriesAsync(Runnable onPublished) {
+        final int generation = ++loadGeneration;
+        final Executor asyncExecutor = task -> Bukkit.getScheduler().runTaskAsynchronously(ODailyQuests.INSTANCE, task);
+        final Executor mainThreadExecutor = task -> Bukkit.getScheduler().runTask(ODailyQuests.INSTANCE, task);
 
-        } else if (Modes.getQuestsMode() == 2) {
+        final CompletableFuture<Category[]> loading = loadCategories(Modes.getQuestsMode(), asyncExecutor, mainThreadExecutor);
+        loading.whenComplete((categories, throwable) -> mainThreadExecutor.execute(() -> {
+            if (publish(generation, loading)) onPublished.run();
+        }));
+    }
 
-            /* load easy quests */
-            questsLoader.loadQuests(easyQuestsFile, easyCategory, "easyQuests");
-            if (easyCategory.size() < QuestsAmount.getEasyQuestsAmount()) {
-                PluginLogger.error("Impossible to enable the plugin.");
-                PluginLogger.error("You need to have at least " + QuestsAmount.getEasyQuestsAmount() + " quest in your easyQuests.yml file.");
-                Bukkit.getPluginManager().disablePlugin(ODailyQuests.INSTANCE);
-            }
+    /**
+     * Load the categories of the given quests mode, each one in its own task.
+     *
+     * @param questsMode         quests mode.
+     * @param executor           executor of the loading tasks.
+     * @param mainThreadExecutor executor of the steps that must run on the main thread.
+     * @return global, easy, medium and hard categories, once loaded.
+     */
+    private CompletableFuture<Category[]> loadCategories(int questsMode, Executor executor, Executor mainThreadExecutor) {
+        final Category[] categories = {
+                new Category("globalQuests"),
+                new Category("easyQuests"),
+                new Category("mediumQuests"),
+                new Category("hardQuests")
+        };
 
-            /* load medium quests */
-            questsLoader.loadQuests(mediumQuestsFile, mediumCategory, "mediumQuests");
-            if (mediumCategory.size() < QuestsAmount.getMediumQuestsAmount()) {
-                PluginLogger.error("Impossible to enable the plugin.");
-                PluginLogger.error("You need to have at least " + QuestsAmount.getMediumQuestsAmount() + " quest in your mediumQuests.yml file.");
-                Bukkit.getPluginManager().disablePlugin(ODailyQuests.INSTANCE);
-            }
+        final List<CompletableFuture<Void>> tasks = new ArrayList<>();
 
-            /* load hard quests */
-            questsLoader.loadQuests(hardQuestsFile, hardCategory, "hardQuests");
-            if (hardCategory.size() < QuestsAmount.getHardQuestsAmount()) {
-                PluginLogger.error("Impossible to enable the plugin.");
-                PluginLogger.error("You need to have at least " + QuestsAmount.getHardQuestsAmount() + " quest in your hardQuests.yml file.");
-                Bukkit.getPluginManager().disablePlugin(ODailyQuests.INSTANCE);
-            }
+        if (questsMode == 1) {
+            tasks.add(loadCategory(QuestsFiles.getGlobalQuestsFile(), categories[0], executor, mainThreadExecutor));
+        } else if (questsMode == 2) {
+            tasks.add(loadCategory(QuestsFiles.getEasyQuestsFile(), categories[1], executor, mainThreadExecutor));
+            tasks.add(loadCategory(QuestsFiles.getMediumQuestsFile(), categories[2], executor, mainThreadExecutor));
+            tasks.add(loadCategory(QuestsFiles.getHardQuestsFile(), categories[3], executor, mainThreadExecutor));
         } else {
             PluginLogger.error("Impossible to load the quests. The selected mode is incorrect.");
         }
+
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).thenApply(ignored -> categories);
+    }
+
+    private CompletableFuture<Void> loadCategory(File file, Category category, Executor executor, Executor mainThreadExecutor) {
+        return CompletableFuture.runAsync(() -> {
+            final FileConfiguration configuration = QuestsFiles.loadQuestsConfiguration(file);
+            new QuestsLoader(mainThreadExecutor).loadQuests(configuration, category, category.getName());
+            category.buildAliasTable();
+        }, executor);
+    }
+
+    /**
+     * Publish the loaded categories as the new catalog. Must be called from the main thread.
+     *
+     * @param generation generation of the load.
+     * @param loading    loaded categories.
+     * @return true if the catalog has been published.
+     */
+    private boolean publish(int generation, CompletableFuture<Category[]> loading) {
+        if (generation != loadGeneration) {
+            Debugger.addDebug("Quests load " + generation + " has been replaced by a more recent one.");
+            return false;
+        }
+
+        final Category[] categories;
+        try {
+            categories = loading.getNow(null);
+        } catch (CompletionException | CancellationException e) {
+            PluginLogger.error("An error occurred while loading the quests.");
+            e.printStackTrace();
+            return false;
+        }
+
+        if (categories == null) {
+            PluginLogger.error("The quests could not be loaded in time.");
+            return false;
+        }
+
+        if (Modes.getQuestsMode() == 1) {
+            checkAmount(categories[0], QuestsAmount.getQuestsAmount());
+        } else if (Modes.getQuestsMode() == 2) {
+            checkAmount(categories[1], QuestsAmount.getEasyQuestsAmount());
+            checkAmount(categories[2], QuestsAmount.getMediumQuestsAmount());
+            checkAmount(categories[3], QuestsAmount.getHardQuestsAmount());
+        }
+
+        catalog = new QuestCatalog(categories[0], categories[1], categories[2], categories[3]);
+        return true;
+    }
+
+    /**
+     * Disable the plugin if a category has not enough quests.
+     *
+     * @param category category to check.
+     * @param required required amount of quests.
+     */
+    private void checkAmount(Category category, int required) {
+        if (category.size() < required) {
+            PluginLogger.error("Impossible to enable the plugin.");
+            PluginLogger.error("You need to have at least " + required + " quest(s) in your " + category.getName() + ".yml file.");
+            Bukkit.getPluginManager().disablePlugin(ODailyQuests.INSTANCE);
+        }
+    }
+
+    /**
+     * Get the currently published quest catalog.
+     * @return quest catalog.
+     */
+    public static QuestCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Get the amount of categories.
+     * @return amount of categories.
+     */
+    public static int getCategoriesAmount() {
+        return 4;
+    }
+
+    /**
+     * Get the index of a category, used to store per-category data in arrays.
+     * @param name category name.
+     * @return index of the category, or -1 if the category does not exist.
+     */
+    public static int getCategoryIndex(String name) {
+        return switch (name) {
+            case "globalQuests" -> 0;
+            case "easyQuests" -> 1;
+            case "mediumQuests" -> 2;
+            case "hardQuests" -> 3;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Get the name of a category by its index.
+     * @param index category index.
+     * @return category name.
+     */
+    public static String getCategoryName(int index) {
+        return switch (index) {
+            case 0 -> "globalQuests";
+            case 1 -> "easyQuests";
+            case 2 -> "mediumQuests";
+            case 3 -> "hardQuests";
+            default -> null;
+        };
     }
 
     /**
@@ -83,49 +218,42 @@ public class CategoriesLoader {
      * @return category.
      */
     public static Category getCategoryByName(String name) {
-        switch (name) {
-            case "globalQuests" -> {
-                return globalCategory;
-            }
-            case "easyQuests" -> {
-                return easyCategory;
-            }
-            case "mediumQuests" -> {
-                return mediumCategory;
-            }
-            case "hardQuests" -> {
-                return hardCategory;
-            }
-        }
+        return catalog.getCategory(name);
+    }
 
-        return null;
+    /**
+     * Get global quests. The published catalog must not be modified, so the list is read-only.
+     */
+    public static List<AbstractQuest> getGlobalQuests() {
+        return Collections.unmodifiableList(catalog.getCategory("globalQuests"));
     }
 
     /**
-     * Get global quests.
+     * Get easy quests. The published catalog must not be modified, so the list is read-only.
      */
-    public static ArrayList<AbstractQuest> getGlobalQuests() {
-        return globalCategory;
+    public static List<AbstractQuest> getEasyQuests() {
+        return Collections.unmodifiableList(catalog.getCategory("easyQuests"));
     }
 
     /**
-     * Get easy quests.
+     * Get medium quests. The published catalog must not be modified, so the list is read-only.
      */
-    public static ArrayList<AbstractQuest> getEasyQuests() {
-        return easyCategory;
+    public static List<AbstractQuest> getMediumQuests() {
+        return Collections.unmodifiableList(catalog.getCategory("mediumQuests"));
     }
 
     /**
-     * Get medium quests.
+     * Get hard quests. The published catalog must not be modified, so the list is read-only.
      */
-    public static ArrayList<AbstractQuest> getMediumQuests() {
-        return mediumCategory;
+    public static List<AbstractQuest> getHardQuests() {
+        return Collections.unmodifiableList(catalog.getCategory("hardQuests"));
     }
 
     /**
-     * Get hard quests.
+     * Get the types of all loaded quests.
+     * @return loaded quest types.
      */
-    public static ArrayList<AbstractQuest> getHardQuests() {
-        return hardCategory;
+    public static Set<QuestType> getLoadedQuestTypes() {
+        return catalog.getQuestTypes();
     }
 }
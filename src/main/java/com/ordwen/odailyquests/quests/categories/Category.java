@@ -7,10 +7,36 @@ public class Category extends ArrayList<AbstractQuest> {
 
     private final String name;
 
+    /* alias table of the quest weights, null if all the quests have the same weight */
+    private AliasTable aliasTable;
+
     public Category(String name) {
         this.name = name;
     }
 
+    /**
+     * Build the alias table of the quest weights. Must be called once all the quests are added.
+     */
+    void buildAliasTable() {
+        final double[] weights = new double[size()];
+        boolean isWeighted = false;
+
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = get(i).getWeight();
+            if (weights[i] != weights[0]) isWeighted = true;
+        }
+
+        this.aliasTable = isWeighted ? new AliasTable(weights) : null;
+    }
+
+    /**
+     * Get the alias table of the quest weights.
+     * @return alias table, or null if all the quests have the same weight.
+     */
+    public AliasTable getAliasTable() {
+        return this.aliasTable;
+    }
+
     /**
      * Get the name of the category.
      * @return name of the category.
@@ -0,0 +1,104 @@
+package com.ordwen.odailyquests.quests.categories;
+
+import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.types.AbstractQuest;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set of all the loaded quests. A new catalog is built on each reload and published at once,
+ * the categories of a published catalog must not be modified.
+ */
+public final class QuestCatalog {
+
+    private final Category globalCategory;
+    private final Category easyCategory;
+    private final Category mediumCategory;
+    private final Category hardCategory;
+
+    /* all quests, by quest id */
+    private final Map<String, AbstractQuest> questsById = new HashMap<>();
+
+    /* types of all quests */
+    private final Set<QuestType> questTypes = EnumSet.noneOf(QuestType.class);
+
+    /* hash of the quest ids and weights, equal for two catalogs loaded from the same files */
+    private final long version;
+
+    QuestCatalog(Category globalCategory, Category easyCategory, Category mediumCategory, Category hardCategory) {
+        this.globalCategory = globalCategory;
+        this.easyCategory = easyCategory;
+        this.mediumCategory = mediumCategory;
+        this.hardCategory = hardCategory;
+
+        long hash = 1;
+        for (Category category : new Category[]{globalCategory, easyCategory, mediumCategory, hardCategory}) {
+            for (AbstractQuest quest : category) {
+                questsById.put(quest.getQuestId(), quest);
+                questTypes.add(quest.getQuestType());
+
+                hash = 31 * hash + quest.getQuestId().hashCode();
+                hash = 31 * hash + Double.hashCode(quest.getWeight());
+            }
+            hash = 31 * hash + category.size();
+        }
+        this.version = hash;
+    }
+
+    /**
+     * Create a catalog without any quest.
+     *
+     * @return empty catalog.
+     */
+    static QuestCatalog empty() {
+        return new QuestCatalog(new Category("globalQuests"), new Category("easyQuests"), new Category("mediumQuests"), new Category("hardQuests"));
+    }
+
+    /**
+     * Get category by name.
+     *
+     * @param name category name.
+     * @return category, or null if the category does not exist.
+     */
+    public Category getCategory(String name) {
+        return switch (name) {
+            case "globalQuests" -> globalCategory;
+            case "easyQuests" -> easyCategory;
+            case "mediumQuests" -> mediumCategory;
+            case "hardQuests" -> hardCategory;
+            default -> null;
+        };
+    }
+
+    /**
+     * Get a quest by its id.
+     *
+     * @param questId quest id.
+     * @return quest, or null if no quest has this id.
+     */
+    public AbstractQuest getQuest(String questId) {
+        return questsById.get(questId);
+    }
+
+    /**
+     * Get the version of the catalog. It only changes when quests are added, removed, reordered or reweighted.
+     *
+     * @return catalog version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the types of all quests.
+     *
+     * @return quest types.
+     */
+    public Set<QuestType> getQuestTypes() {
+        return Collections.unmodifiableSet(questTypes);
+    }
+}
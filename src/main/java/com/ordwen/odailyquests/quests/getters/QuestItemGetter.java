@@ -6,8 +6,50 @@ import com.ordwen.odailyquests.tools.PluginLogger;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
 public abstract class QuestItemGetter extends ItemGetter implements IQuestItem {
 
+    /* maximum time a loading thread waits for a step handed to the main thread, in milliseconds */
+    private static final long MAIN_THREAD_TIMEOUT = 30_000L;
+
+    /**
+     * Run a step that uses the API of another plugin.
+     * Quests are loaded directly by default, loaders running off the main thread hand these steps to it
+     * and wait for them with {@link #awaitMainThread(CompletableFuture)}.
+     * @param step the step to run
+     * @return the result of the step
+     */
+    protected <T> T callOnMainThread(Supplier<T> step) {
+        return step.get();
+    }
+
+    /**
+     * Wait for a step handed to the main thread.
+     * The main thread never runs the step if the plugin is disabled during the load, so the load fails after a delay instead of blocking its thread.
+     * @param step the step handed to the main thread
+     * @return the result of the step
+     * @throws CompletionException if the step failed, or was not run in time
+     */
+    protected static <T> T awaitMainThread(CompletableFuture<T> step) {
+        try {
+            return step.get(MAIN_THREAD_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            step.cancel(false);
+            throw new CompletionException("The main thread did not run a quest loading step in time.", e);
+        }
+    }
+
     /**
      * Get an item from a string.
      * @param material the material of the item
@@ -39,7 +81,7 @@ public abstract class QuestItemGetter extends ItemGetter implements IQuestItem {
      */
     @Override
     public ItemStack getOraxenItem(String namespace, String fileName, int questIndex, String parameter) {
-        final Pair<String, ItemStack> result = super.getOraxenItem(namespace);
+        final Pair<String, ItemStack> result = callOnMainThread(() -> super.getOraxenItem(namespace));
         if (!result.first().isEmpty()) {
             configurationError(fileName, questIndex, parameter, result.first());
             return null;
@@ -58,7 +100,7 @@ public abstract class QuestItemGetter extends ItemGetter implements IQuestItem {
      */
     @Override
     public ItemStack getItemsAdderItem(String namespace, String fileName, int questIndex, String parameter) {
-        final Pair<String, ItemStack> result = super.getItemsAdderItem(namespace);
+        final Pair<String, ItemStack> result = callOnMainThread(() -> super.getItemsAdderItem(namespace));
         if (!result.first().isEmpty()) {
             configurationError(fileName, questIndex, parameter, result.first());
             return null;
@@ -77,7 +119,7 @@ public abstract class QuestItemGetter extends ItemGetter implements IQuestItem {
      */
     @Override
     public ItemStack getMMOItemsItem(String namespace, String fileName, int questIndex, String parameter) {
-        final Pair<String, ItemStack> result = super.getMMOItemsItem(namespace);
+        final Pair<String, ItemStack> result = callOnMainThread(() -> super.getMMOItemsItem(namespace));
         if (!result.first().isEmpty()) {
             configurationError(fileName, questIndex, parameter, result.first());
             return null;
@@ -0,0 +1,49 @@
+package com.ordwen.odailyquests.quests.player;
+
+import com.ordwen.odailyquests.tools.RenewalScheduler;
+
+import java.util.UUID;
+
+/**
+ * Seed of a deterministic quest draw, derived from the player, the period of the draw and the rerolls.
+ * The same seed always gives the same quests, so the drawn quests do not need to be stored.
+ * The seed does not depend on the loaded quests, each quest is ranked by its id (see {@link QuestDrawer}).
+ */
+public final class DrawSeed {
+
+    private DrawSeed() {
+    }
+
+    /**
+     * Get the seed of a draw.
+     *
+     * @param uuid      UUID of the player.
+     * @param timestamp timestamp of the draw.
+     * @param rerolls   amount of rerolls since the last renewal.
+     * @return seed.
+     */
+    public static long of(UUID uuid, long timestamp, int rerolls) {
+        long seed = mix(0, uuid.getMostSignificantBits());
+        seed = mix(seed, uuid.getLeastSignificantBits());
+        seed = mix(seed, RenewalScheduler.getPeriod(timestamp));
+        return mix(seed, rerolls);
+    }
+
+    /**
+     * Get the random number of a quest in a draw.
+     *
+     * @param seed    seed of the draw.
+     * @param questId id of the quest.
+     * @return number in (0, 1].
+     */
+    public static double random(long seed, String questId) {
+        return ((mix(seed, questId.hashCode()) >>> 11) + 1) * 0x1.0p-53;
+    }
+
+    private static long mix(long seed, long value) {
+        long hash = (seed ^ value) * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 29);
+    }
+}
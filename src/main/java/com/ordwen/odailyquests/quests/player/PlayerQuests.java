@@ -5,8 +5,12 @@ import com.ordwen.odailyquests.api.events.AllCategoryQuestsCompletedEvent;
 import com.ordwen.odailyquests.configuration.essentials.Modes;
 import com.ordwen.odailyquests.configuration.essentials.QuestsAmount;
 import com.ordwen.odailyquests.api.events.AllQuestsCompletedEvent;
+import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.categories.CategoriesLoader;
+import com.ordwen.odailyquests.quests.categories.QuestCatalog;
 import com.ordwen.odailyquests.quests.types.AbstractQuest;
 import com.ordwen.odailyquests.quests.player.progression.Progression;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionSnapshot;
 import org.bukkit.entity.Player;
 
 import java.util.*;
@@ -21,15 +25,378 @@ public class PlayerQuests {
 
     private int achievedQuests;
     private int totalAchievedQuests;
-    private final LinkedHashMap<AbstractQuest, Progression> playerQuests;
-    private final Map<String, Integer> achievedQuestsByCategory = new HashMap<>();
-    private final Set<String> claimedRewards = new HashSet<>();
+
+    /* achieved quests and claimed category rewards, by category index */
+    private final int[] achievedQuestsByCategory = new int[CategoriesLoader.getCategoriesAmount()];
+    private final BitSet claimedRewards = new BitSet();
+
+    /* quests and their progress, by slot */
+    private final AbstractQuest[] quests;
+    private final int[] progress;
+    private final BitSet achieved = new BitSet();
+
+    /* views on the progress of each slot */
+    private final Progression[] progressions;
+
+    /* slots of the non-achieved quests, by quest type */
+    private static final int[] NO_SLOTS = new int[0];
+    private final EnumMap<QuestType, int[]> slotsByType = new EnumMap<>(QuestType.class);
+
+    /* bitmask of the types of the non-achieved quests, one bit per QuestType ordinal */
+    private long questTypesMask;
+
+    /* amount of rerolls since the last renewal, part of the deterministic draw seed */
+    private int rerolls;
+
+    /* slots whose quest comes from the deterministic draw, they do not need to be stored while they have no progress */
+    private final BitSet derivedSlots = new BitSet();
+
+    /* true if some data has changed since the last save, new quests are not saved yet */
+    private boolean dirty = true;
+    private final BitSet dirtySlots = new BitSet();
+
+    /* incremented by each change, each slot keeps the version of its last change */
+    private long version;
+    private final long[] slotVersions;
 
     public PlayerQuests(Long timestamp, LinkedHashMap<AbstractQuest, Progression> playerQuests) {
         this.timestamp = timestamp;
-        this.playerQuests = playerQuests;
         this.achievedQuests = 0;
         this.totalAchievedQuests = 0;
+
+        this.quests = playerQuests.keySet().toArray(new AbstractQuest[0]);
+        this.progress = new int[quests.length];
+        this.progressions = new Progression[quests.length];
+        this.slotVersions = new long[quests.length];
+
+        for (int slot = 0; slot < quests.length; slot++) {
+            final Progression initial = playerQuests.get(quests[slot]);
+            if (initial != null) {
+                progress[slot] = initial.getProgression();
+                if (initial.isAchieved()) achieved.set(slot);
+            }
+            progressions[slot] = new Progression(this, slot);
+        }
+
+        indexQuestTypes();
+        dirtySlots.set(0, quests.length);
+    }
+
+    /**
+     * Build the index of the non-achieved quest slots by quest type.
+     * Must be called each time a quest is achieved.
+     */
+    private void indexQuestTypes() {
+        slotsByType.clear();
+        long mask = 0L;
+
+        for (int slot = 0; slot < quests.length; slot++) {
+            if (quests[slot] == null || achieved.get(slot)) continue;
+
+            final QuestType type = quests[slot].getQuestType();
+            final int[] current = slotsByType.getOrDefault(type, NO_SLOTS);
+            final int[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = slot;
+
+            slotsByType.put(type, updated);
+            mask |= 1L << type.ordinal();
+        }
+
+        questTypesMask = mask;
+    }
+
+    /**
+     * Check if the player has a non-achieved quest of the given type.
+     *
+     * @param questType type of quest.
+     * @return true if at least one non-achieved quest has this type.
+     */
+    public boolean hasQuestType(QuestType questType) {
+        return (questTypesMask & (1L << questType.ordinal())) != 0;
+    }
+
+    /**
+     * Get the slots of the non-achieved quests of the given type.
+     * The returned array must not be modified.
+     *
+     * @param questType type of quest.
+     * @return slots of the matching quests, or an empty array.
+     */
+    public int[] getQuestSlots(QuestType questType) {
+        return slotsByType.getOrDefault(questType, NO_SLOTS);
+    }
+
+    /**
+     * Mark the quest owning the given progression as changed.
+     *
+     * @param progression progression that has changed.
+     */
+    public void markDirty(Progression progression) {
+        for (int slot = 0; slot < progressions.length; slot++) {
+            if (progressions[slot] == progression) {
+                markChanged(slot);
+                return;
+            }
+        }
+        markChanged();
+    }
+
+    /**
+     * Mark the player data as changed.
+     */
+    public void markDirty() {
+        markChanged();
+    }
+
+    /**
+     * Mark all the quests as changed, so that they are all written by the next save.
+     */
+    public void markAllDirty() {
+        for (int slot = 0; slot < quests.length; slot++) {
+            markChanged(slot);
+        }
+    }
+
+    private void markChanged() {
+        this.version++;
+        this.dirty = true;
+    }
+
+    private void markChanged(int slot) {
+        this.dirtySlots.set(slot);
+        this.slotVersions[slot] = ++this.version;
+        this.dirty = true;
+    }
+
+    /**
+     * Check if the player has changes that are not saved yet.
+     *
+     * @return true if dirty.
+     */
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    /**
+     * Get the slots of the quests that have changed since the last save.
+     *
+     * @return copy of the dirty slots.
+     */
+    public BitSet getDirtySlots() {
+        return (BitSet) this.dirtySlots.clone();
+    }
+
+    /**
+     * Get the version of the player data, incremented by each change.
+     *
+     * @return version.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Mark the data captured by a snapshot as saved, once it has been written.
+     * The slots changed again since the snapshot stay dirty. Must be called from the main thread.
+     *
+     * @param snapshot written snapshot.
+     */
+    public void markSaved(ProgressionSnapshot snapshot) {
+        if (snapshot.getVersion() == this.version) {
+            clearDirty();
+            return;
+        }
+
+        for (int slot = snapshot.nextDirtySlot(0); slot >= 0 && slot < quests.length; slot = snapshot.nextDirtySlot(slot + 1)) {
+            if (slotVersions[slot] <= snapshot.getVersion()) dirtySlots.clear(slot);
+        }
+    }
+
+    /**
+     * Mark the player data as saved.
+     */
+    public void clearDirty() {
+        this.dirty = false;
+        this.dirtySlots.clear();
+    }
+
+    /**
+     * Get the amount of quests of the player.
+     *
+     * @return amount of quests.
+     */
+    public int getQuestsCount() {
+        return quests.length;
+    }
+
+    /**
+     * Get the quest at the given slot.
+     *
+     * @param slot slot of the quest.
+     * @return quest.
+     */
+    public AbstractQuest getQuest(int slot) {
+        return quests[slot];
+    }
+
+    /**
+     * Get the progression of the quest at the given slot.
+     *
+     * @param slot slot of the quest.
+     * @return progression.
+     */
+    public Progression getProgression(int slot) {
+        return progressions[slot];
+    }
+
+    /**
+     * Get the progress of the quest at the given slot.
+     *
+     * @param slot slot of the quest.
+     * @return progress.
+     */
+    public int getProgress(int slot) {
+        return progress[slot];
+    }
+
+    /**
+     * Set the progress of the quest at the given slot.
+     *
+     * @param slot     slot of the quest.
+     * @param progress progress to set.
+     */
+    public void setProgress(int slot, int progress) {
+        this.progress[slot] = progress;
+        markChanged(slot);
+    }
+
+    /**
+     * Check if the quest at the given slot is achieved.
+     *
+     * @param slot slot of the quest.
+     * @return true if achieved.
+     */
+    public boolean isAchieved(int slot) {
+        return achieved.get(slot);
+    }
+
+    /**
+     * Mark the quest at the given slot as achieved.
+     *
+     * @param slot slot of the quest.
+     */
+    public void setAchieved(int slot) {
+        this.achieved.set(slot);
+        markChanged(slot);
+    }
+
+    /**
+     * Replace the quests by their definition in the given catalog, matched by quest id.
+     * Quests that are not in the catalog anymore are left in place.
+     *
+     * @param catalog quest catalog.
+     * @return slots whose quest is not in the catalog.
+     */
+    public BitSet remapQuests(QuestCatalog catalog) {
+        final BitSet missing = new BitSet();
+        boolean changed = false;
+
+        for (int slot = 0; slot < quests.length; slot++) {
+            if (quests[slot] == null) continue;
+
+            final AbstractQuest quest = catalog.getQuest(quests[slot].getQuestId());
+            if (quest == null) {
+                missing.set(slot);
+            } else if (quest != quests[slot]) {
+                quests[slot] = quest;
+                changed = true;
+            }
+        }
+
+        if (changed) indexQuestTypes();
+        return missing;
+    }
+
+    /**
+     * Replace the quest at the given slot. The progress is reset, unless the quest was already achieved.
+     *
+     * @param slot  slot of the quest.
+     * @param quest new quest.
+     */
+    public void replaceQuest(int slot, AbstractQuest quest) {
+        this.quests[slot] = quest;
+        this.derivedSlots.clear(slot);
+        if (!achieved.get(slot)) this.progress[slot] = 0;
+
+        markChanged(slot);
+        indexQuestTypes();
+    }
+
+    /**
+     * Mark the quest at the given slot as coming from the deterministic draw.
+     *
+     * @param slot slot of the quest.
+     */
+    public void setDerived(int slot) {
+        this.derivedSlots.set(slot);
+    }
+
+    /**
+     * Check if the quest at the given slot comes from the deterministic draw.
+     *
+     * @param slot slot of the quest.
+     * @return true if the quest can be drawn again from the seed.
+     */
+    public boolean isDerived(int slot) {
+        return this.derivedSlots.get(slot);
+    }
+
+    /**
+     * Stop deriving the quests from the deterministic draw, for example because the catalog has changed.
+     * The derived quests are marked as changed, so that they are stored by the next save.
+     *
+     * @return true if some quests were derived.
+     */
+    public boolean clearDerived() {
+        if (derivedSlots.isEmpty()) return false;
+
+        for (int slot = derivedSlots.nextSetBit(0); slot >= 0; slot = derivedSlots.nextSetBit(slot + 1)) {
+            markChanged(slot);
+        }
+        this.derivedSlots.clear();
+        return true;
+    }
+
+    /**
+     * Get the amount of rerolls since the last renewal.
+     *
+     * @return amount of rerolls.
+     */
+    public int getRerolls() {
+        return this.rerolls;
+    }
+
+    /**
+     * Set the amount of rerolls since the last renewal.
+     *
+     * @param rerolls amount of rerolls.
+     */
+    public void setRerolls(int rerolls) {
+        this.rerolls = rerolls;
+        markChanged();
+    }
+
+    /**
+     * Check if the player has the given quest.
+     *
+     * @param quest quest to check.
+     * @return true if the quest is in one of the slots.
+     */
+    public boolean hasQuest(AbstractQuest quest) {
+        for (AbstractQuest current : quests) {
+            if (current == quest) return true;
+        }
+        return false;
     }
 
     /**
@@ -47,22 +414,21 @@ public class PlayerQuests {
     public void increaseAchievedQuests(String category, Player player) {
         this.achievedQuests++;
         this.totalAchievedQuests++;
+        markChanged();
 
-        if (this.achievedQuestsByCategory.containsKey(category)) {
-            this.achievedQuestsByCategory.put(category, this.achievedQuestsByCategory.get(category) + 1);
-        } else {
-            this.achievedQuestsByCategory.put(category, 1);
-        }
+        indexQuestTypes();
+
+        final int categoryIndex = CategoriesLoader.getCategoryIndex(category);
+        if (categoryIndex >= 0) {
+            final int achievedInCategory = ++this.achievedQuestsByCategory[categoryIndex];
 
-        /* check if the player have completed all quests from a category */
-        if (Modes.getQuestsMode() == 2) {
-            for (Map.Entry<String, Integer> entry : this.achievedQuestsByCategory.entrySet()) {
-                if (claimedRewards.contains(entry.getKey())) continue;
-                if (entry.getValue() == QuestsAmount.getQuestsAmountByCategory(entry.getKey())) {
-                    final AllCategoryQuestsCompletedEvent event = new AllCategoryQuestsCompletedEvent(player, entry.getKey());
-                    ODailyQuests.INSTANCE.getServer().getPluginManager().callEvent(event);
-                    claimedRewards.add(entry.getKey());
-                }
+            /* check if the player have completed all quests from a category */
+            if (Modes.getQuestsMode() == 2
+                    && !claimedRewards.get(categoryIndex)
+                    && achievedInCategory == QuestsAmount.getQuestsAmountByCategory(category)) {
+                final AllCategoryQuestsCompletedEvent event = new AllCategoryQuestsCompletedEvent(player, category);
+                ODailyQuests.INSTANCE.getServer().getPluginManager().callEvent(event);
+                claimedRewards.set(categoryIndex);
             }
         }
 
@@ -79,13 +445,17 @@ public class PlayerQuests {
      */
     public void setAchievedQuests(int i) {
         this.achievedQuests = i;
+        markChanged();
     }
 
     /**
      * Set total number of achieved quests.
      * @param i total number of achieved quests to set.
      */
-    public void setTotalAchievedQuests(int i) { this.totalAchievedQuests = i; }
+    public void setTotalAchievedQuests(int i) {
+        this.totalAchievedQuests = i;
+        markChanged();
+    }
 
     /**
      * Get number of achieved quests.
@@ -103,10 +473,15 @@ public class PlayerQuests {
 
     /**
      * Get player quests.
+     * The map is built on each call, prefer {@link #getQuest(int)} and {@link #getProgression(int)} when possible.
      * @return a LinkedHashMap of quests and their progression.
      */
     public LinkedHashMap<AbstractQuest, Progression> getPlayerQuests() {
-        return this.playerQuests;
+        final LinkedHashMap<AbstractQuest, Progression> playerQuests = new LinkedHashMap<>();
+        for (int slot = 0; slot < quests.length; slot++) {
+            playerQuests.put(quests[slot], progressions[slot]);
+        }
+        return playerQuests;
     }
 
 }
@@ -0,0 +1,149 @@
+package com.ordwen.odailyquests.quests.player;
+
+import org.bukkit.entity.Player;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe registry of the quests of the online players, keyed by player UUID.
+ * A name index is kept for the callers that only know the player name.
+ */
+public final class PlayerQuestsRegistry {
+
+    /* quests of the players, by UUID */
+    private final Map<UUID, PlayerQuests> quests = new ConcurrentHashMap<>();
+
+    /* player UUID, by player name */
+    private final Map<String, UUID> names = new ConcurrentHashMap<>();
+
+    /**
+     * Register the quests of a player. The quests must be fully built before being registered.
+     *
+     * @param player       player.
+     * @param playerQuests quests of the player.
+     */
+    public void put(Player player, PlayerQuests playerQuests) {
+        put(player.getUniqueId(), player.getName(), playerQuests);
+    }
+
+    /**
+     * Register the quests of a player. The quests must be fully built before being registered.
+     *
+     * @param uuid         UUID of the player.
+     * @param playerName   name of the player.
+     * @param playerQuests quests of the player.
+     */
+    public void put(UUID uuid, String playerName, PlayerQuests playerQuests) {
+        quests.put(uuid, playerQuests);
+        names.put(playerName, uuid);
+    }
+
+    /**
+     * Get the quests of a player.
+     *
+     * @param uuid UUID of the player.
+     * @return quests of the player, or null if not loaded.
+     */
+    public PlayerQuests get(UUID uuid) {
+        return quests.get(uuid);
+    }
+
+    /**
+     * Get the quests of a player.
+     *
+     * @param player player.
+     * @return quests of the player, or null if not loaded.
+     */
+    public PlayerQuests get(Player player) {
+        return quests.get(player.getUniqueId());
+    }
+
+    /**
+     * Get the quests of a player by name.
+     *
+     * @param playerName name of the player.
+     * @return quests of the player, or null if not loaded.
+     */
+    public PlayerQuests get(String playerName) {
+        final UUID uuid = names.get(playerName);
+        return uuid == null ? null : quests.get(uuid);
+    }
+
+    /**
+     * Get the UUID of a registered player.
+     *
+     * @param playerName name of the player.
+     * @return UUID of the player, or null if not registered.
+     */
+    public UUID getUniqueId(String playerName) {
+        return names.get(playerName);
+    }
+
+    /**
+     * Check if the quests of a player are loaded.
+     *
+     * @param player player.
+     * @return true if the quests are loaded.
+     */
+    public boolean contains(Player player) {
+        return quests.containsKey(player.getUniqueId());
+    }
+
+    /**
+     * Check if the quests of a player are loaded.
+     *
+     * @param playerName name of the player.
+     * @return true if the quests are loaded.
+     */
+    public boolean contains(String playerName) {
+        return get(playerName) != null;
+    }
+
+    /**
+     * Unregister the quests of a player.
+     *
+     * @param player player.
+     * @return removed quests, or null if not loaded.
+     */
+    public PlayerQuests remove(Player player) {
+        names.remove(player.getName(), player.getUniqueId());
+        return quests.remove(player.getUniqueId());
+    }
+
+    /**
+     * Unregister the quests of a player by name.
+     *
+     * @param playerName name of the player.
+     * @return removed quests, or null if not loaded.
+     */
+    public PlayerQuests remove(String playerName) {
+        final UUID uuid = names.remove(playerName);
+        return uuid == null ? null : quests.remove(uuid);
+    }
+
+    /**
+     * Get a copy of the registered quests, by player name.
+     *
+     * @return registered quests.
+     */
+    public Map<String, PlayerQuests> getPlayersByName() {
+        final Map<String, PlayerQuests> players = new LinkedHashMap<>();
+        for (Map.Entry<String, UUID> entry : names.entrySet()) {
+            final PlayerQuests playerQuests = quests.get(entry.getValue());
+            if (playerQuests != null) players.put(entry.getKey(), playerQuests);
+        }
+        return players;
+    }
+
+    /**
+     * Get the amount of registered players.
+     *
+     * @return amount of registered players.
+     */
+    public int size() {
+        return quests.size();
+    }
+}
@@ -0,0 +1,204 @@
+package com.ordwen.odailyquests.quests.player;
+
+import com.ordwen.odailyquests.quests.categories.AliasTable;
+import com.ordwen.odailyquests.quests.categories.Category;
+import com.ordwen.odailyquests.quests.player.progression.Progression;
+import com.ordwen.odailyquests.quests.types.AbstractQuest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Draw of distinct random quests, safe to use from any thread as long as the categories are not modified.
+ * Uniform draws are a partial Fisher-Yates shuffle over a per-thread index array, so they cost O(amount) whatever the category size.
+ * Weighted draws sample the alias table of the category and reject the quests already drawn, which also costs O(amount)
+ * unless the drawn quests hold most of the weight.
+ * Seeded draws rank each quest by a key computed from the seed, the quest id and the weight, so they cost O(amount * size),
+ * but do not depend on the order of the quests: editing the quest files only changes the draws in which an added,
+ * removed or reweighted quest ranks among the drawn ones.
+ */
+public final class QuestDrawer {
+
+    /* reusable arrays of the current thread */
+    private static final class Scratch {
+
+        /* identity permutation, restored after each draw */
+        private int[] indexes = new int[0];
+
+        /* swaps done by the current draw, undone at the end */
+        private int[] swaps = new int[0];
+
+        /* indexes drawn by the current weighted draw are marked with its stamp */
+        private int[] marks = new int[0];
+        private int stamp;
+    }
+
+    /* samples rejected in a row before falling back to a linear draw */
+    private static final int MAX_REJECTIONS = 16;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private QuestDrawer() {
+    }
+
+    /**
+     * Draw distinct quests from a category and add them to the given quests, with an empty progression.
+     * Quests are drawn according to their weight.
+     *
+     * @param category category to draw from.
+     * @param amount   amount of quests to draw.
+     * @param quests   drawn quests.
+     * @param random   random generator.
+     * @return amount of drawn quests, lower than the requested amount if the category is too small.
+     */
+    public static int draw(Category category, int amount, Map<AbstractQuest, Progression> quests, Random random) {
+        final AliasTable aliasTable = category.getAliasTable();
+        if (aliasTable == null) return draw((List<AbstractQuest>) category, amount, quests, random);
+
+        final int size = category.size();
+        final int count = Math.min(amount, size);
+        if (count <= 0) return 0;
+
+        final Scratch scratch = SCRATCH.get();
+        if (scratch.marks.length < size) scratch.marks = new int[size];
+        if (++scratch.stamp == 0) {
+            Arrays.fill(scratch.marks, 0);
+            scratch.stamp = 1;
+        }
+
+        final int[] marks = scratch.marks;
+        final int stamp = scratch.stamp;
+
+        for (int i = 0; i < count; i++) {
+            int index = -1;
+            for (int attempt = 0; attempt < MAX_REJECTIONS && index == -1; attempt++) {
+                final int sampled = aliasTable.sample(random);
+                if (marks[sampled] != stamp) index = sampled;
+            }
+            if (index == -1) index = drawRemaining(category, marks, stamp, random);
+
+            marks[index] = stamp;
+            quests.put(category.get(index), new Progression(0, false));
+        }
+
+        return count;
+    }
+
+    /**
+     * Draw one of the quests not drawn yet, according to their weight, with a linear scan.
+     *
+     * @param category category to draw from.
+     * @param marks    marks of the drawn quests.
+     * @param stamp    stamp of the current draw.
+     * @param random   random generator.
+     * @return index of the drawn quest.
+     */
+    private static int drawRemaining(Category category, int[] marks, int stamp, Random random) {
+        double total = 0;
+        for (int i = 0; i < category.size(); i++) {
+            if (marks[i] != stamp) total += category.get(i).getWeight();
+        }
+
+        double target = random.nextDouble() * total;
+        int last = -1;
+        for (int i = 0; i < category.size(); i++) {
+            if (marks[i] == stamp) continue;
+
+            last = i;
+            target -= category.get(i).getWeight();
+            if (target < 0) break;
+        }
+
+        return last;
+    }
+
+    /**
+     * Draw distinct quests from a list and add them to the given quests, with an empty progression.
+     * All the quests have the same chance to be drawn.
+     *
+     * @param category quests to draw from.
+     * @param amount   amount of quests to draw.
+     * @param quests   drawn quests.
+     * @param random   random generator.
+     * @return amount of drawn quests, lower than the requested amount if the list is too small.
+     */
+    public static int draw(List<AbstractQuest> category, int amount, Map<AbstractQuest, Progression> quests, Random random) {
+        final int size = category.size();
+        final int count = Math.min(amount, size);
+        if (count <= 0) return 0;
+
+        final Scratch scratch = SCRATCH.get();
+        if (scratch.indexes.length < size) {
+            scratch.indexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                scratch.indexes[i] = i;
+            }
+        }
+        if (scratch.swaps.length < count) scratch.swaps = new int[count];
+
+        final int[] indexes = scratch.indexes;
+        final int[] swaps = scratch.swaps;
+
+        for (int i = 0; i < count; i++) {
+            final int j = i + random.nextInt(size - i);
+            swap(indexes, i, j);
+            swaps[i] = j;
+
+            quests.put(category.get(indexes[i]), new Progression(0, false));
+        }
+
+        for (int i = count - 1; i >= 0; i--) {
+            swap(indexes, i, swaps[i]);
+        }
+
+        return count;
+    }
+
+    /**
+     * Draw distinct quests from a category from a seed and add them to the given quests, with an empty progression.
+     * Quests are drawn according to their weight: each quest gets the key -ln(u) / weight, where u only depends on
+     * the seed and the quest id, and the quests with the lowest keys are drawn.
+     *
+     * @param category category to draw from.
+     * @param amount   amount of quests to draw.
+     * @param quests   drawn quests.
+     * @param seed     seed of the draw.
+     * @return amount of drawn quests, lower than the requested amount if the category is too small.
+     */
+    public static int draw(Category category, int amount, Map<AbstractQuest, Progression> quests, long seed) {
+        final int size = category.size();
+        final int count = Math.min(amount, size);
+        if (count <= 0) return 0;
+
+        final double[] keys = new double[size];
+        for (int i = 0; i < size; i++) {
+            final AbstractQuest quest = category.get(i);
+            keys[i] = -Math.log(DrawSeed.random(seed, quest.getQuestId())) / quest.getWeight();
+        }
+
+        for (int i = 0; i < count; i++) {
+            int lowest = -1;
+            for (int j = 0; j < size; j++) {
+                if (Double.isNaN(keys[j])) continue;
+                if (lowest == -1 || keys[j] < keys[lowest]
+                        || keys[j] == keys[lowest] && category.get(j).getQuestId().compareTo(category.get(lowest).getQuestId()) < 0) {
+                    lowest = j;
+                }
+            }
+
+            /* drawn quests are marked with NaN */
+            keys[lowest] = Double.NaN;
+            quests.put(category.get(lowest), new Progression(0, false));
+        }
+
+        return count;
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        final int value = array[i];
+        array[i] = array[j];
+        array[j] = value;
+    }
+}
@@ -5,22 +5,36 @@ import com.ordwen.odailyquests.configuration.essentials.Debugger;
 import com.ordwen.odailyquests.configuration.essentials.Modes;
 import com.ordwen.odailyquests.configuration.essentials.QuestsAmount;
 import com.ordwen.odailyquests.configuration.essentials.Temporality;
+import com.ordwen.odailyquests.enums.QuestType;
 import com.ordwen.odailyquests.quests.categories.CategoriesLoader;
+import com.ordwen.odailyquests.quests.categories.Category;
+import com.ordwen.odailyquests.quests.categories.QuestCatalog;
+import com.ordwen.odailyquests.quests.player.progression.Utils;
+import com.ordwen.odailyquests.quests.player.progression.storage.LoadedProgression;
+import com.ordwen.odailyquests.quests.player.progression.storage.binary.BinaryManager;
+import com.ordwen.odailyquests.quests.player.progression.storage.mvstore.MVStoreManager;
 import com.ordwen.odailyquests.quests.player.progression.storage.sql.SQLManager;
 import com.ordwen.odailyquests.quests.types.AbstractQuest;
 import com.ordwen.odailyquests.quests.player.progression.storage.yaml.YamlManager;
 import com.ordwen.odailyquests.quests.player.progression.Progression;
 import com.ordwen.odailyquests.tools.PluginLogger;
 import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntBiFunction;
 
 public class QuestsManager implements Listener {
 
@@ -29,6 +43,8 @@ public class QuestsManager implements Listener {
      */
     private final SQLManager sqlManager;
     private final YamlManager yamlManager;
+    private final BinaryManager binaryManager;
+    private final MVStoreManager mvStoreManager;
     private final ODailyQuests plugin;
 
     /**
@@ -46,9 +62,60 @@ public class QuestsManager implements Listener {
             this.yamlManager = oDailyQuests.getYamlManager();
             this.sqlManager = null;
         }
+
+        this.binaryManager = oDailyQuests.getBinaryManager();
+        this.mvStoreManager = oDailyQuests.getMVStoreManager();
     }
 
-    private static final HashMap<String, PlayerQuests> activeQuests = new HashMap<>();
+    private static final PlayerQuestsRegistry activeQuests = new PlayerQuestsRegistry();
+
+    /* quests loaded before login, waiting for the player to join */
+    private static final Map<UUID, LoadedProgression> pendingQuests = new ConcurrentHashMap<>();
+
+    /* delay after which preloaded quests are considered outdated, in milliseconds */
+    private static final long PENDING_TIMEOUT = 30_000L;
+
+    /* maximum time the preload waits for the pending writes of the player, in milliseconds */
+    private static final long PRELOAD_WAIT_TIMEOUT = 5_000L;
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+
+        pendingQuests.values().removeIf(loaded -> loaded.isExpired(PENDING_TIMEOUT));
+
+        final String playerName = event.getName();
+
+        /* on a quick reconnection, the previous session may not be written yet and the stored data would be outdated */
+        if (activeQuests.get(event.getUniqueId()) != null || !plugin.getProgressionWriter().awaitWrites(playerName, PRELOAD_WAIT_TIMEOUT)) {
+            Debugger.addDebug("Quests of player " + playerName + " are still being saved, they will be loaded on join.");
+            return;
+        }
+
+        Debugger.addDebug("Preloading quests of player " + playerName + ".");
+
+        final LoadedProgression loaded = switch (Modes.getStorageMode()) {
+            case "YAML" -> yamlManager == null ? null : yamlManager.getLoadProgressionYAML().fetchPlayerQuests(event.getUniqueId(), playerName,
+                    Modes.getQuestsMode(),
+                    Modes.getTimestampMode(),
+                    Temporality.getTemporalityMode());
+            case "MySQL", "H2" -> sqlManager == null ? null : sqlManager.getLoadProgressionSQL().fetchProgression(event.getUniqueId(), playerName,
+                    Modes.getQuestsMode(),
+                    Modes.getTimestampMode(),
+                    Temporality.getTemporalityMode());
+            case "BINARY" -> binaryManager == null ? null : binaryManager.getLoadProgressionBinary().fetchProgression(event.getUniqueId(), playerName,
+                    Modes.getQuestsMode(),
+                    Modes.getTimestampMode(),
+                    Temporality.getTemporalityMode());
+            case "MVStore" -> mvStoreManager == null ? null : mvStoreManager.getLoadProgressionMVStore().fetchProgression(event.getUniqueId(), playerName,
+                    Modes.getQuestsMode(),
+                    Modes.getTimestampMode(),
+                    Temporality.getTemporalityMode());
+            default -> null;
+        };
+
+        if (loaded != null) pendingQuests.put(event.getUniqueId(), loaded);
+    }
 
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
@@ -56,26 +123,25 @@ public class QuestsManager implements Listener {
         Debugger.addDebug("EVENT START");
         Debugger.addDebug("PlayerJoinEvent triggered.");
 
-        final String playerName = event.getPlayer().getName();
+        final Player player = event.getPlayer();
+        final String playerName = player.getName();
 
         Debugger.addDebug("Player " + playerName + " joined the server.");
 
-        if (!activeQuests.containsKey(playerName)) {
+        if (!activeQuests.contains(player)) {
 
             Debugger.addDebug("Player " + playerName + " is not in the array.");
 
-            switch (Modes.getStorageMode()) {
-                case "YAML" -> yamlManager.getLoadProgressionYAML().loadPlayerQuests(playerName, activeQuests,
-                        Modes.getQuestsMode(),
-                        Modes.getTimestampMode(),
-                        Temporality.getTemporalityMode());
-                case "MySQL", "H2" -> sqlManager.getLoadProgressionSQL().loadProgression(playerName, activeQuests,
-                        Modes.getQuestsMode(),
-                        Modes.getTimestampMode(),
-                        Temporality.getTemporalityMode());
-                default ->
-                        PluginLogger.error("Impossible to load player quests : the selected storage mode is incorrect !");
+            final LoadedProgression loaded = pendingQuests.remove(player.getUniqueId());
+            if (loaded != null && !loaded.isExpired(PENDING_TIMEOUT)) {
+                Debugger.addDebug("Using preloaded quests of player " + playerName + ".");
+                Utils.activatePlayerQuests(playerName, activeQuests, loaded);
             }
+
+            /* fallback if the quests could not be preloaded in time, once the previous session is written */
+            else plugin.getProgressionWriter().runAfterWrites(playerName, () -> {
+                if (player.isOnline() && !activeQuests.contains(player)) loadPlayerQuests(player);
+            });
         } else {
 
             Debugger.addDebug("Player " + playerName + " is already in the array.");
@@ -88,16 +154,47 @@ public class QuestsManager implements Listener {
 
     }
 
+    /**
+     * Load the quests of a player from the selected storage mode, asynchronously.
+     *
+     * @param player player to load.
+     */
+    private void loadPlayerQuests(Player player) {
+        final String playerName = player.getName();
+
+        switch (Modes.getStorageMode()) {
+            case "YAML" -> yamlManager.getLoadProgressionYAML().loadPlayerQuests(player.getUniqueId(), playerName, activeQuests,
+                    Modes.getQuestsMode(),
+                    Modes.getTimestampMode(),
+                    Temporality.getTemporalityMode());
+            case "MySQL", "H2" -> sqlManager.getLoadProgressionSQL().loadProgression(player.getUniqueId(), playerName, activeQuests,
+                    Modes.getQuestsMode(),
+                    Modes.getTimestampMode(),
+                    Temporality.getTemporalityMode());
+            case "BINARY" -> binaryManager.getLoadProgressionBinary().loadProgression(player.getUniqueId(), playerName, activeQuests,
+                    Modes.getQuestsMode(),
+                    Modes.getTimestampMode(),
+                    Temporality.getTemporalityMode());
+            case "MVStore" -> mvStoreManager.getLoadProgressionMVStore().loadProgression(player.getUniqueId(), playerName, activeQuests,
+                    Modes.getQuestsMode(),
+                    Modes.getTimestampMode(),
+                    Temporality.getTemporalityMode());
+            default ->
+                    PluginLogger.error("Impossible to load player quests : the selected storage mode is incorrect !");
+        }
+    }
+
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         Debugger.addDebug("[EVENT START]");
         Debugger.addDebug("PlayerQuitEvent triggered.");
 
-        String playerName = event.getPlayer().getName();
+        final Player player = event.getPlayer();
+        final String playerName = player.getName();
 
         Debugger.addDebug("Player " + playerName + " left the server.");
 
-        final PlayerQuests playerQuests = activeQuests.get(playerName);
+        final PlayerQuests playerQuests = activeQuests.get(player);
 
         if (playerQuests == null) {
             Debugger.addDebug("Player " + playerName + " not found in the array.");
@@ -107,13 +204,20 @@ public class QuestsManager implements Listener {
             return;
         }
 
-        switch (Modes.getStorageMode()) {
-            case "YAML" -> yamlManager.getSaveProgressionYAML().saveProgression(playerName, playerQuests, !plugin.isServerStopping());
-            case "MySQL", "H2" -> sqlManager.getSaveProgressionSQL().saveProgression(playerName, playerQuests, !plugin.isServerStopping());
-            default -> PluginLogger.error("Impossible to save player quests : the selected storage mode is incorrect !");
+        if (playerQuests.isDirty()) {
+            switch (Modes.getStorageMode()) {
+                case "YAML" -> yamlManager.getSaveProgressionYAML().saveProgression(player.getUniqueId(), playerName, playerQuests, !plugin.isServerStopping());
+                case "MySQL", "H2" -> sqlManager.getSaveProgressionSQL().saveProgression(playerName, playerQuests, !plugin.isServerStopping());
+                case "BINARY" -> binaryManager.getSaveProgressionBinary().saveProgression(player.getUniqueId(), playerName, playerQuests, !plugin.isServerStopping());
+                case "MVStore" -> mvStoreManager.getSaveProgressionMVStore().saveProgression(player.getUniqueId(), playerName, playerQuests, !plugin.isServerStopping());
+                default -> PluginLogger.error("Impossible to save player quests : the selected storage mode is incorrect !");
+            }
+        } else {
+            Debugger.addDebug("Player " + playerName + " has no unsaved changes.");
         }
 
-        activeQuests.remove(playerName);
+        activeQuests.remove(player);
+        pendingQuests.remove(player.getUniqueId());
 
         Debugger.addDebug("Player " + playerName + " removed from the array.");
         Debugger.addDebug("[EVENT END]");
@@ -121,63 +225,68 @@ public class QuestsManager implements Listener {
     }
 
     /**
-     * Select random quests.
+     * Select random quests. Can be called from any thread.
      */
     public static LinkedHashMap<AbstractQuest, Progression> selectRandomQuests() {
+        return selectRandomQuests(CategoriesLoader.getCatalog(), ThreadLocalRandom.current());
+    }
 
-        LinkedHashMap<AbstractQuest, Progression> quests = new LinkedHashMap<>();
-
-        if (Modes.getQuestsMode() == 1) {
-            ArrayList<AbstractQuest> globalQuests = CategoriesLoader.getGlobalQuests();
+    /**
+     * Select quests from the given catalog. Can be called from any thread.
+     * The same catalog and random generator seed always give the same quests.
+     *
+     * @param catalog quest catalog.
+     * @param random  random generator.
+     * @return selected quests.
+     */
+    public static LinkedHashMap<AbstractQuest, Progression> selectRandomQuests(QuestCatalog catalog, Random random) {
+        final LinkedHashMap<AbstractQuest, Progression> quests = new LinkedHashMap<>();
+        selectQuests(catalog, (category, amount) -> QuestDrawer.draw(category, amount, quests, random));
+        return quests;
+    }
 
-            for (int i = 0; i < QuestsAmount.getQuestsAmount(); i++) {
-                AbstractQuest quest;
-                do {
-                    quest = getRandomQuest(globalQuests);
-                } while (quests.containsKey(quest));
+    /**
+     * Select quests from the given catalog with a deterministic draw. Can be called from any thread.
+     * The same seed always gives the same quests, as long as the drawn quests and their weights are unchanged.
+     *
+     * @param catalog quest catalog.
+     * @param seed    seed of the draw.
+     * @return selected quests.
+     */
+    public static LinkedHashMap<AbstractQuest, Progression> selectSeededQuests(QuestCatalog catalog, long seed) {
+        final LinkedHashMap<AbstractQuest, Progression> quests = new LinkedHashMap<>();
+        selectQuests(catalog, (category, amount) -> QuestDrawer.draw(category, amount, quests, seed));
+        return quests;
+    }
 
-                Progression progression = new Progression(0, false);
-                quests.put(quest, progression);
-            }
+    /**
+     * Draw the quests of each category used by the quests mode.
+     *
+     * @param catalog quest catalog.
+     * @param draw    draw of distinct quests of a category, returning the amount of drawn quests.
+     */
+    private static void selectQuests(QuestCatalog catalog, ToIntBiFunction<Category, Integer> draw) {
+        if (Modes.getQuestsMode() == 1) {
+            drawQuests(catalog.getCategory("globalQuests"), QuestsAmount.getQuestsAmount(), draw);
         } else if (Modes.getQuestsMode() == 2) {
-
-            final ArrayList<AbstractQuest> easyQuests = CategoriesLoader.getEasyQuests();
-            final ArrayList<AbstractQuest> mediumQuests = CategoriesLoader.getMediumQuests();
-            final ArrayList<AbstractQuest> hardQuests = CategoriesLoader.getHardQuests();
-
-            for (int i = 0; i < QuestsAmount.getEasyQuestsAmount(); i++) {
-                AbstractQuest quest;
-                do {
-                    quest = getRandomQuest(easyQuests);
-                } while (quests.containsKey(quest));
-
-                Progression progression = new Progression(0, false);
-                quests.put(quest, progression);
-            }
-
-            for (int i = 0; i < QuestsAmount.getMediumQuestsAmount(); i++) {
-                AbstractQuest quest;
-                do {
-                    quest = getRandomQuest(mediumQuests);
-                } while (quests.containsKey(quest));
-
-                Progression progression = new Progression(0, false);
-                quests.put(quest, progression);
-            }
-
-            for (int i = 0; i < QuestsAmount.getHardQuestsAmount(); i++) {
-                AbstractQuest quest;
-                do {
-                    quest = getRandomQuest(hardQuests);
-                } while (quests.containsKey(quest));
-
-                Progression progression = new Progression(0, false);
-                quests.put(quest, progression);
-            }
+            drawQuests(catalog.getCategory("easyQuests"), QuestsAmount.getEasyQuestsAmount(), draw);
+            drawQuests(catalog.getCategory("mediumQuests"), QuestsAmount.getMediumQuestsAmount(), draw);
+            drawQuests(catalog.getCategory("hardQuests"), QuestsAmount.getHardQuestsAmount(), draw);
         } else
             PluginLogger.error(ChatColor.RED + "Impossible to select quests for player. The selected mode is incorrect.");
+    }
 
-        return quests;
+    /**
+     * Draw distinct quests of a category.
+     *
+     * @param category category to draw from.
+     * @param amount   amount of quests to draw.
+     * @param draw     draw of distinct quests of a category, returning the amount of drawn quests.
+     */
+    private static void drawQuests(Category category, int amount, ToIntBiFunction<Category, Integer> draw) {
+        if (draw.applyAsInt(category, amount) < amount) {
+            PluginLogger.error("Impossible to draw " + amount + " quest(s) from " + category.getName() + ", there are only " + category.size() + " quest(s).");
+        }
     }
 
     /**
@@ -187,17 +296,32 @@ public class QuestsManager implements Listener {
      * @return a quest.
      */
     public static AbstractQuest getRandomQuest(ArrayList<AbstractQuest> quests) {
-        int questNumber = new Random().nextInt(quests.size());
+        int questNumber = ThreadLocalRandom.current().nextInt(quests.size());
         return quests.get(questNumber);
     }
 
     /**
-     * Get active quests map.
+     * Get the registry of active quests.
      *
-     * @return quests map.
+     * @return active quests registry.
      */
-    public static HashMap<String, PlayerQuests> getActiveQuests() {
+    public static PlayerQuestsRegistry getActiveQuests() {
         return activeQuests;
     }
 
+    /**
+     * Check if the player has a non-achieved quest of the given type.
+     * Cheap enough to be called before any other work in a listener.
+     *
+     * @param player    player to check.
+     * @param questType type of quest.
+     * @return true if the player can progress a quest of this type.
+     */
+    public static boolean hasActiveQuestType(Player player, QuestType questType) {
+        if (player == null) return false;
+
+        final PlayerQuests playerQuests = activeQuests.get(player);
+        return playerQuests != null && playerQuests.hasQuestType(questType);
+    }
+
 }
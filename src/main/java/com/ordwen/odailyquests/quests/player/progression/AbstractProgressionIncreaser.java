@@ -3,8 +3,11 @@ package com.ordwen.odailyquests.quests.player.progression;
 import com.ordwen.odailyquests.ODailyQuests;
 import com.ordwen.odailyquests.api.events.QuestCompletedEvent;
 import com.ordwen.odailyquests.api.events.QuestProgressEvent;
+import com.ordwen.odailyquests.configuration.functionalities.progression.LegacyProgressEvents;
 import com.ordwen.odailyquests.configuration.functionalities.progression.ProgressionMessage;
 import com.ordwen.odailyquests.enums.QuestsMessages;
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.types.AbstractQuest;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -13,20 +16,36 @@ public abstract class AbstractProgressionIncreaser {
 
     public void increaseProgression(Player player, Progression progression, AbstractQuest quest, int amount) {
 
-        if (!quest.getRequiredWorlds().isEmpty() && !quest.getRequiredWorlds().contains(player.getWorld().getName())) {
+        if (!quest.isRequiredWorld(player.getWorld())) {
             final String msg = QuestsMessages.NOT_REQUIRED_WORLD.getMessage(player);
             if (msg != null) player.sendMessage(msg);
 
             return;
         }
 
-        for (int i = 0; i < amount; i++) {
-            final QuestProgressEvent event = new QuestProgressEvent(player, progression, quest);
+        final boolean hasProgressListeners = QuestProgressEvent.getHandlerList().getRegisteredListeners().length > 0;
+
+        if (!hasProgressListeners) {
+            progression.increaseProgression(amount, quest.getAmountRequired());
+        } else if (LegacyProgressEvents.isEnabled()) {
+            for (int i = 0; i < amount && progression.getProgression() < quest.getAmountRequired(); i++) {
+                final QuestProgressEvent event = new QuestProgressEvent(player, progression, quest);
+                Bukkit.getPluginManager().callEvent(event);
+                if (event.isCancelled() || event.getAmount() <= 0) continue;
+
+                progression.increaseProgression(event.getAmount(), quest.getAmountRequired());
+            }
+        } else {
+            final QuestProgressEvent event = new QuestProgressEvent(player, progression, quest, amount);
             Bukkit.getPluginManager().callEvent(event);
+            if (event.isCancelled() || event.getAmount() <= 0) return;
 
-            progression.increaseProgression();
+            progression.increaseProgression(event.getAmount(), quest.getAmountRequired());
         }
 
+        final PlayerQuests playerQuests = QuestsManager.getActiveQuests().get(player);
+        if (playerQuests != null) playerQuests.markDirty(progression);
+
         if (progression.getProgression() >= quest.getAmountRequired()) {
             final QuestCompletedEvent event = new QuestCompletedEvent(player, progression, quest);
             ODailyQuests.INSTANCE.getServer().getPluginManager().callEvent(event);
@@ -1,7 +1,13 @@
 package com.ordwen.odailyquests.quests.player.progression;
 
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
+
 public class Progression {
 
+    /* owner of the progress data, null for a standalone progression */
+    private final PlayerQuests playerQuests;
+    private final int slot;
+
     private int progression;
     private boolean isAchieved;
 
@@ -11,34 +17,66 @@ public class Progression {
      * @param isAchieved status of quest.
      */
     public Progression(int progression, boolean isAchieved) {
+        this.playerQuests = null;
+        this.slot = -1;
         this.progression = progression;
         this.isAchieved = isAchieved;
     }
 
+    /**
+     * Create a view on the progression of a quest stored in the player quests.
+     * @param playerQuests player quests holding the progress data.
+     * @param slot slot of the quest.
+     */
+    public Progression(PlayerQuests playerQuests, int slot) {
+        this.playerQuests = playerQuests;
+        this.slot = slot;
+    }
+
     /**
      * Get the progression of quest.
      * @return progression.
      */
-    public int getProgression() { return this.progression; }
+    public int getProgression() {
+        return playerQuests == null ? this.progression : playerQuests.getProgress(slot);
+    }
 
     /**
      * Increment the progression of quest.
      */
-    public void increaseProgression() { this.progression++; }
+    public void increaseProgression() {
+        setProgression(getProgression() + 1);
+    }
+
+    /**
+     * Increase the progression of quest, without exceeding the required amount.
+     * @param amount amount to add.
+     * @param required amount required to complete the quest.
+     */
+    public void increaseProgression(int amount, int required) {
+        final int current = getProgression();
+        setProgression((int) Math.min((long) current + amount, Math.max(required, current)));
+    }
+
+    private void setProgression(int progression) {
+        if (playerQuests == null) this.progression = progression;
+        else playerQuests.setProgress(slot, progression);
+    }
 
     /**
      * Get status of quest.
      * @return status.
      */
     public boolean isAchieved() {
-        return this.isAchieved;
+        return playerQuests == null ? this.isAchieved : playerQuests.isAchieved(slot);
     }
 
     /**
      * Set status of quest.
      */
     public void setAchieved() {
-        this.isAchieved = true;
+        if (playerQuests == null) this.isAchieved = true;
+        else playerQuests.setAchieved(slot);
     }
 
 }
@@ -1,22 +1,35 @@
 package com.ordwen.odailyquests.quests.player.progression;
 
 import com.ordwen.odailyquests.configuration.essentials.Debugger;
+import com.ordwen.odailyquests.configuration.essentials.DeterministicDraws;
+import com.ordwen.odailyquests.configuration.essentials.Modes;
 import com.ordwen.odailyquests.configuration.essentials.QuestsAmount;
+import com.ordwen.odailyquests.configuration.essentials.Temporality;
 import com.ordwen.odailyquests.enums.QuestsMessages;
 import com.ordwen.odailyquests.quests.categories.CategoriesLoader;
+import com.ordwen.odailyquests.quests.categories.Category;
+import com.ordwen.odailyquests.quests.categories.QuestCatalog;
 import com.ordwen.odailyquests.quests.types.AbstractQuest;
+import com.ordwen.odailyquests.quests.player.DrawSeed;
 import com.ordwen.odailyquests.quests.player.PlayerQuests;
+import com.ordwen.odailyquests.quests.player.PlayerQuestsRegistry;
 import com.ordwen.odailyquests.quests.player.QuestsManager;
+import com.ordwen.odailyquests.quests.player.progression.storage.LoadedProgression;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionSnapshot;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import com.ordwen.odailyquests.tools.PluginLogger;
+import com.ordwen.odailyquests.tools.RenewalScheduler;
 import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Calendar;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class Utils {
 
@@ -29,30 +42,9 @@ public class Utils {
      */
     public static boolean checkTimestamp(int timestampConfigMode, int temporalityMode, long timestamp) {
 
-        /* check if last quests renewed day before */
+        /* check if last quests renewed in a previous period */
         if (timestampConfigMode == 1) {
-
-            Calendar oldCal = Calendar.getInstance();
-            Calendar currentCal = Calendar.getInstance();
-            oldCal.setTimeInMillis(timestamp);
-
-            switch (temporalityMode) {
-                case 1 -> {
-                    currentCal.setTimeInMillis(System.currentTimeMillis());
-                    if (oldCal.get(Calendar.YEAR) != currentCal.get(Calendar.YEAR)) return true;
-                    return oldCal.get(Calendar.DAY_OF_YEAR) < currentCal.get(Calendar.DAY_OF_YEAR);
-                }
-                case 2 -> {
-                    currentCal.setTimeInMillis(System.currentTimeMillis());
-                    long diffW = TimeUnit.DAYS.convert(currentCal.getTimeInMillis() - oldCal.getTimeInMillis(), TimeUnit.MILLISECONDS);
-                    return diffW >= 7;
-                }
-                case 3 -> {
-                    currentCal.setTimeInMillis(System.currentTimeMillis());
-                    long diffM = TimeUnit.DAYS.convert(currentCal.getTimeInMillis() - oldCal.getTimeInMillis(), TimeUnit.MILLISECONDS);
-                    return diffM >= 31;
-                }
-            }
+            return RenewalScheduler.getPeriod(timestamp) < RenewalScheduler.getPeriod(System.currentTimeMillis());
         }
 
         /* check if last quests renewed is older than selected temporality */
@@ -76,78 +68,268 @@ public class Utils {
     }
 
     /**
-     * Load quests for a player with no data.
+     * Draw new quests for a player, without activating them.
+     *
+     * @param uuid                UUID of the player, used by deterministic draws.
+     * @param timestampConfigMode timestamp mode.
+     * @param totalAchievedQuests total achieved quests of the player.
+     * @return new player quests.
+     */
+    public static PlayerQuests createNewPlayerQuests(UUID uuid, int timestampConfigMode, int totalAchievedQuests) {
+        return createNewPlayerQuests(uuid, timestampConfigMode, totalAchievedQuests, 0);
+    }
+
+    /**
+     * Draw new quests for a player, without activating them.
+     * When deterministic draws are enabled, the quests are drawn from the seed of the player and marked as derived.
      *
-     * @param playerName          player name.
-     * @param activeQuests        all active quests.
+     * @param uuid                UUID of the player, used by deterministic draws.
      * @param timestampConfigMode timestamp mode.
+     * @param totalAchievedQuests total achieved quests of the player.
+     * @param rerolls             amount of rerolls since the last renewal.
+     * @return new player quests.
      */
-    public static void loadNewPlayerQuests(String playerName, HashMap<String, PlayerQuests> activeQuests, int timestampConfigMode, int totalAchievedQuests) {
+    public static PlayerQuests createNewPlayerQuests(UUID uuid, int timestampConfigMode, int totalAchievedQuests, int rerolls) {
+        final long timestamp = timestampConfigMode == 1 ? Calendar.getInstance().getTimeInMillis() : System.currentTimeMillis();
+        final QuestCatalog catalog = CategoriesLoader.getCatalog();
+        final boolean isDeterministic = DeterministicDraws.isEnabled() && uuid != null;
 
-        activeQuests.remove(playerName);
+        final LinkedHashMap<AbstractQuest, Progression> quests = isDeterministic
+                ? QuestsManager.selectSeededQuests(catalog, DrawSeed.of(uuid, timestamp, rerolls))
+                : QuestsManager.selectRandomQuests(catalog, ThreadLocalRandom.current());
 
-        LinkedHashMap<AbstractQuest, Progression> quests = QuestsManager.selectRandomQuests();
-        PlayerQuests playerQuests;
+        final PlayerQuests playerQuests = new PlayerQuests(timestamp, quests);
+        playerQuests.setTotalAchievedQuests(totalAchievedQuests);
+        playerQuests.setRerolls(rerolls);
 
-        if (timestampConfigMode == 1) {
-            playerQuests = new PlayerQuests(Calendar.getInstance().getTimeInMillis(), quests);
-        } else {
-            playerQuests = new PlayerQuests(System.currentTimeMillis(), quests);
+        if (isDeterministic) {
+            for (int slot = 0; slot < playerQuests.getQuestsCount(); slot++) {
+                playerQuests.setDerived(slot);
+            }
         }
 
-        playerQuests.setTotalAchievedQuests(totalAchievedQuests);
+        return playerQuests;
+    }
 
-        final Player player = Bukkit.getPlayer(playerName);
+    /**
+     * Draw again the quests of a deterministic draw.
+     *
+     * @param uuid      UUID of the player.
+     * @param timestamp timestamp of the draw.
+     * @param rerolls   amount of rerolls since the last renewal.
+     * @return drawn quests, by slot.
+     */
+    public static AbstractQuest[] drawDerivedQuests(UUID uuid, long timestamp, int rerolls) {
+        final long seed = DrawSeed.of(uuid, timestamp, rerolls);
+        return QuestsManager.selectSeededQuests(CategoriesLoader.getCatalog(), seed).keySet().toArray(new AbstractQuest[0]);
+    }
+
+    /**
+     * Activate quests drawn for a player. Must be called from the main thread.
+     *
+     * @param playerName   player name.
+     * @param activeQuests active quests registry.
+     * @param playerQuests drawn quests.
+     */
+    public static void loadNewPlayerQuests(String playerName, PlayerQuestsRegistry activeQuests, PlayerQuests playerQuests) {
+        final Player player = Bukkit.getPlayerExact(playerName);
         if (player == null) {
+            activeQuests.remove(playerName);
             PluginLogger.warn("It seems that " + playerName + " disconnected before the end of the quest renewal.");
             return;
         }
 
+        /* the quests may have been drawn before a reload */
+        remapPlayerQuests(playerName, playerQuests, CategoriesLoader.getCatalog());
+
+        /* replaces the previous quests in a single step */
+        activeQuests.put(player, playerQuests);
+        PluginLogger.fine(playerName + " inserted into the array.");
+        PluginLogger.info(playerName + "'s quests have been renewed.");
+
         final String msg = QuestsMessages.QUESTS_RENEWED.getMessage(player);
         if (msg != null) player.sendMessage(msg);
 
-        if (Bukkit.getPlayer(playerName) != null) {
-            activeQuests.put(playerName, playerQuests);
-            PluginLogger.fine(playerName + " inserted into the array.");
-            PluginLogger.info(playerName + "'s quests have been renewed.");
-        } else {
+        Debugger.addDebug("Quests of player " + playerName + " have been renewed.");
+    }
+
+    /**
+     * Activate loaded quests for a player and send the related message.
+     * Quests loaded before the start of the current period are renewed here, as the renewal of the connected players skips them.
+     * Must be called from the main thread.
+     *
+     * @param playerName   name of the player.
+     * @param activeQuests active quests registry.
+     * @param loaded       loaded progression.
+     */
+    public static void activatePlayerQuests(String playerName, PlayerQuestsRegistry activeQuests, LoadedProgression loaded) {
+        final Player player = Bukkit.getPlayerExact(playerName);
+        if (player == null) {
             PluginLogger.warn("It looks like " + playerName + " has disconnected before his quests were loaded.");
             return;
         }
 
-        Debugger.addDebug("Quests of player " + playerName + " have been renewed.");
+        final int timestampConfigMode = Modes.getTimestampMode();
+        final boolean isOutdated = checkTimestamp(timestampConfigMode, Temporality.getTemporalityMode(), loaded.getPlayerQuests().getTimestamp());
+
+        /* the quests may have been read before the start of the current period */
+        final PlayerQuests playerQuests = isOutdated
+                ? createNewPlayerQuests(player.getUniqueId(), timestampConfigMode, loaded.getPlayerQuests().getTotalAchievedQuests())
+                : loaded.getPlayerQuests();
+
+        /* the quests may have been resolved before a reload */
+        remapPlayerQuests(playerName, playerQuests, CategoriesLoader.getCatalog());
+        activeQuests.put(player, playerQuests);
+
+        final String msg;
+        if (loaded.isRenewed() || isOutdated) {
+            msg = QuestsMessages.QUESTS_RENEWED.getMessage(player);
+            PluginLogger.info(playerName + "'s quests have been renewed.");
+        } else {
+            if (playerQuests.getAchievedQuests() == playerQuests.getQuestsCount()) {
+                msg = QuestsMessages.ALL_QUESTS_ACHIEVED_CONNECT.getMessage(playerName);
+            } else {
+                msg = QuestsMessages.QUESTS_IN_PROGRESS.getMessage(playerName);
+            }
+            PluginLogger.info(playerName + "'s quests have been loaded.");
+        }
+        if (msg != null) player.sendMessage(msg);
     }
 
     /**
-     * Find quest with index in arrays.
+     * Restore the quests of a player from stored values, or draw new quests if it is time to renew them.
      *
-     * @param playerName       player name.
+     * @param uuid                UUID of the player.
+     * @param snapshot            stored progression of the player.
+     * @param questsConfigMode    quests mode.
+     * @param timestampConfigMode timestamp mode.
+     * @param temporalityMode     temporality mode.
+     * @return loaded progression.
+     */
+    public static LoadedProgression restorePlayerQuests(UUID uuid, ProgressionSnapshot snapshot, int questsConfigMode, int timestampConfigMode, int temporalityMode) {
+        if (checkTimestamp(timestampConfigMode, temporalityMode, snapshot.getTimestamp())) {
+            return new LoadedProgression(createNewPlayerQuests(uuid, timestampConfigMode, snapshot.getTotalAchievedQuests()), true);
+        }
+
+        return new LoadedProgression(buildPlayerQuests(snapshot, questsConfigMode), false);
+    }
+
+    /**
+     * Build the quests of a player from stored values. Quests are found by id, or by index for data stored without ids.
+     * Quests that do not exist anymore or that are held twice are replaced by a random quest of the same category,
+     * and only these slots are marked as changed.
+     *
+     * @param snapshot         stored progression of the player.
      * @param questsConfigMode quests mode.
-     * @param questIndex       index of quest in array.
-     * @param id               number of player quest.
-     * @return quest of index.
+     * @return player quests.
      */
-    public static AbstractQuest findQuest(String playerName, int questsConfigMode, int questIndex, int id) {
-        AbstractQuest quest = null;
+    public static PlayerQuests buildPlayerQuests(ProgressionSnapshot snapshot, int questsConfigMode) {
+        final String playerName = snapshot.getPlayerName();
+        final QuestCatalog catalog = CategoriesLoader.getCatalog();
 
-        if (questsConfigMode == 1) {
-            quest = getQuestAtIndex(CategoriesLoader.getGlobalQuests(), questIndex, playerName);
-        } else if (questsConfigMode == 2) {
+        final int amount = Math.min(snapshot.getQuestsCount(), QuestsAmount.getQuestsAmount());
+        final AbstractQuest[] quests = new AbstractQuest[amount];
+        final BitSet missing = new BitSet();
 
-            final int questsAmount = QuestsAmount.getQuestsAmount();
+        for (int slot = 0; slot < amount; slot++) {
+            final String questId = snapshot.getQuestId(slot);
+            final AbstractQuest quest = questId == null
+                    ? findQuest(playerName, questsConfigMode, snapshot.getQuestIndex(slot), slot + 1)
+                    : catalog.getQuest(questId);
 
-            if (id <= (questsAmount - QuestsAmount.getMediumQuestsAmount() - QuestsAmount.getHardQuestsAmount())) {
-                quest = getQuestAtIndex(CategoriesLoader.getEasyQuests(), questIndex, playerName);
-            }
+            if ((questId != null && quest == null) || (quest != null && Arrays.asList(quests).contains(quest))) {
+                missing.set(slot);
+            } else quests[slot] = quest;
+        }
 
-            else if (id <= (questsAmount - QuestsAmount.getHardQuestsAmount())) {
-                quest = getQuestAtIndex(CategoriesLoader.getMediumQuests(), questIndex, playerName);
+        for (int slot = missing.nextSetBit(0); slot >= 0; slot = missing.nextSetBit(slot + 1)) {
+            quests[slot] = drawReplacement(catalog.getCategory(getSlotCategoryName(questsConfigMode, slot + 1)), quests);
+            if (quests[slot] == null) {
+                PluginLogger.warn("Quest number " + (slot + 1) + " of player " + playerName + " could not be restored, and there is no quest to replace it.");
+            } else {
+                Debugger.addDebug("Quest number " + (slot + 1) + " of player " + playerName + " does not exist anymore or is held twice, it has been replaced.");
             }
+        }
 
-            else {
-                quest = getQuestAtIndex(CategoriesLoader.getHardQuests(), questIndex, playerName);
-            }
+        final LinkedHashMap<AbstractQuest, Progression> playerQuestsMap = new LinkedHashMap<>();
+        for (int slot = 0; slot < amount; slot++) {
+            final boolean isAchieved = snapshot.isAchieved(slot);
+            final int progress = missing.get(slot) && !isAchieved ? 0 : snapshot.getProgress(slot);
+            playerQuestsMap.put(quests[slot], new Progression(progress, isAchieved));
+        }
+
+        if (snapshot.getQuestsCount() > QuestsAmount.getQuestsAmount()) {
+            PluginLogger.warn("Player " + playerName + " has more quests than the configuration.");
+            PluginLogger.warn("Only the first " + QuestsAmount.getQuestsAmount() + " quests will be loaded.");
+            PluginLogger.warn("After changing the number of quests, we recommend that you reset the progressions to avoid any problems.");
+        }
+
+        final PlayerQuests playerQuests = new PlayerQuests(snapshot.getTimestamp(), playerQuestsMap);
+        playerQuests.setAchievedQuests(snapshot.getAchievedQuests());
+        playerQuests.setTotalAchievedQuests(snapshot.getTotalAchievedQuests());
+        playerQuests.setRerolls(snapshot.getRerolls());
+        playerQuests.clearDirty();
+
+        for (int slot = 0; slot < amount; slot++) {
+            if (snapshot.isDerived(slot) && !missing.get(slot)) playerQuests.setDerived(slot);
+        }
 
+        for (int slot = missing.nextSetBit(0); slot >= 0; slot = missing.nextSetBit(slot + 1)) {
+            playerQuests.markDirty(playerQuests.getProgression(slot));
+        }
+
+        return playerQuests;
+    }
+
+    /**
+     * Draw a random quest of a category that is not already held.
+     *
+     * @param category category of the quest.
+     * @param held     quests already held, may contain null values.
+     * @return quest, or null if there is no quest to draw.
+     */
+    private static AbstractQuest drawReplacement(Category category, AbstractQuest[] held) {
+        if (category == null) return null;
+
+        final List<AbstractQuest> candidates = new ArrayList<>(category);
+        candidates.removeAll(Arrays.asList(held));
+        if (candidates.isEmpty()) return null;
+
+        return candidates.get(ThreadLocalRandom.current().nextInt(candidates.size()));
+    }
+
+    /**
+     * Get the name of the category of a player quest, according to its number.
+     *
+     * @param questsConfigMode quests mode.
+     * @param id               number of player quest.
+     * @return category name, or null if the mode is incorrect.
+     */
+    private static String getSlotCategoryName(int questsConfigMode, int id) {
+        if (questsConfigMode == 1) return "globalQuests";
+        if (questsConfigMode != 2) return null;
+
+        final int questsAmount = QuestsAmount.getQuestsAmount();
+        if (id <= (questsAmount - QuestsAmount.getMediumQuestsAmount() - QuestsAmount.getHardQuestsAmount())) return "easyQuests";
+        if (id <= (questsAmount - QuestsAmount.getHardQuestsAmount())) return "mediumQuests";
+        return "hardQuests";
+    }
+
+    /**
+     * Find quest with index in arrays. Only used for data stored without quest ids.
+     *
+     * @param playerName       player name.
+     * @param questsConfigMode quests mode.
+     * @param questIndex       index of quest in array.
+     * @param id               number of player quest.
+     * @return quest of index.
+     */
+    public static AbstractQuest findQuest(String playerName, int questsConfigMode, int questIndex, int id) {
+        AbstractQuest quest = null;
+
+        final String categoryName = getSlotCategoryName(questsConfigMode, id);
+        if (categoryName != null) {
+            quest = getQuestAtIndex(CategoriesLoader.getCategoryByName(categoryName), questIndex, playerName);
         } else
             PluginLogger.error("Impossible to load player quests. The selected mode is incorrect.");
 
@@ -162,6 +344,42 @@ public class Utils {
         return quest;
     }
 
+    /**
+     * Remap the quests of a player onto the given catalog, matched by quest id.
+     * Quests that are not in the catalog anymore are replaced by a random quest of the same category.
+     *
+     * @param playerName   player name.
+     * @param playerQuests player quests.
+     * @param catalog      quest catalog.
+     * @return true if at least one quest has been replaced.
+     */
+    public static boolean remapPlayerQuests(String playerName, PlayerQuests playerQuests, QuestCatalog catalog) {
+        final BitSet missing = playerQuests.remapQuests(catalog);
+        if (missing.isEmpty()) return false;
+
+        for (int slot = missing.nextSetBit(0); slot >= 0; slot = missing.nextSetBit(slot + 1)) {
+            final AbstractQuest removed = playerQuests.getQuest(slot);
+            final Category category = catalog.getCategory(removed.getCategoryName());
+
+            final List<AbstractQuest> candidates = new ArrayList<>();
+            if (category != null) {
+                for (AbstractQuest quest : category) {
+                    if (!playerQuests.hasQuest(quest)) candidates.add(quest);
+                }
+            }
+
+            if (candidates.isEmpty()) {
+                PluginLogger.warn("Quest " + removed.getQuestId() + " of player " + playerName + " does not exist anymore, and there is no quest to replace it.");
+                continue;
+            }
+
+            playerQuests.replaceQuest(slot, candidates.get(ThreadLocalRandom.current().nextInt(candidates.size())));
+            Debugger.addDebug("Quest " + removed.getQuestId() + " of player " + playerName + " does not exist anymore, it has been replaced.");
+        }
+
+        return true;
+    }
+
     /**
      * Try to get quest from index.
      * @param questsArray the array where find the quest.
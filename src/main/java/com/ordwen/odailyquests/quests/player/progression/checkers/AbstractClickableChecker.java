@@ -32,16 +32,16 @@ public abstract class AbstractClickableChecker extends AbstractProgressionIncrea
      * @param player the player to increase progression for.
      */
     public void setPlayerQuestProgression(Player player, ItemStack clickedItem) {
-        if (DisabledWorlds.isWorldDisabled(player.getWorld().getName())) {
+        if (DisabledWorlds.isWorldDisabled(player.getWorld())) {
             final String msg = QuestsMessages.WORLD_DISABLED.getMessage(player);
             if (msg != null) player.sendMessage(msg);
 
             return;
         }
 
-        if (QuestsManager.getActiveQuests().containsKey(player.getName())) {
+        if (QuestsManager.getActiveQuests().contains(player)) {
 
-            final HashMap<AbstractQuest, Progression> playerQuests = QuestsManager.getActiveQuests().get(player.getName()).getPlayerQuests();
+            final HashMap<AbstractQuest, Progression> playerQuests = QuestsManager.getActiveQuests().get(player).getPlayerQuests();
             for (AbstractQuest abstractQuest : playerQuests.keySet()) {
 
                 if (abstractQuest instanceof ItemQuest quest) {
@@ -102,9 +102,9 @@ public abstract class AbstractClickableChecker extends AbstractProgressionIncrea
      * @param quantity       quantity trade.
      */
     public void validateTradeQuestType(Player player, Villager villager, MerchantRecipe selectedRecipe, int quantity) {
-        if (QuestsManager.getActiveQuests().containsKey(player.getName())) {
+        if (QuestsManager.getActiveQuests().contains(player)) {
 
-            HashMap<AbstractQuest, Progression> playerQuests = QuestsManager.getActiveQuests().get(player.getName()).getPlayerQuests();
+            HashMap<AbstractQuest, Progression> playerQuests = QuestsManager.getActiveQuests().get(player).getPlayerQuests();
 
             for (AbstractQuest abstractQuest : playerQuests.keySet()) {
                 if (abstractQuest instanceof VillagerQuest quest) {
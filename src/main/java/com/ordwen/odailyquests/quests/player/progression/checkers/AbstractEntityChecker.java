@@ -6,14 +6,13 @@ import com.ordwen.odailyquests.quests.player.progression.AbstractProgressionIncr
 import com.ordwen.odailyquests.quests.types.AbstractQuest;
 import com.ordwen.odailyquests.quests.types.EntityQuest;
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
 import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.Progression;
 import org.bukkit.DyeColor;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
-
 public abstract class AbstractEntityChecker extends AbstractProgressionIncreaser {
 
     /**
@@ -26,51 +25,34 @@ public abstract class AbstractEntityChecker extends AbstractProgressionIncreaser
      * @param dyeColor   the dye color of the sheep, if the entity is a sheep.
      */
     public void setPlayerQuestProgression(Player player, EntityType entityType, String entityName, int amount, QuestType questType, DyeColor dyeColor) {
-        final String worldName = player.getWorld().getName();
+        final PlayerQuests playerQuests = QuestsManager.getActiveQuests().get(player);
+        if (playerQuests == null) return;
+
+        final int[] slots = playerQuests.getQuestSlots(questType);
+        if (slots.length == 0) return;
 
-        if (DisabledWorlds.isWorldDisabled(worldName)) {
+        if (DisabledWorlds.isWorldDisabled(player.getWorld())) {
             return;
         }
 
-        if (QuestsManager.getActiveQuests().containsKey(player.getName())) {
-
-            final HashMap<AbstractQuest, Progression> playerQuests = QuestsManager.getActiveQuests().get(player.getName()).getPlayerQuests();
-
-            for (AbstractQuest abstractQuest : playerQuests.keySet()) {
-
-                final Progression progression = playerQuests.get(abstractQuest);
-                if (!progression.isAchieved() && abstractQuest.getQuestType() == questType) {
+        for (int slot : slots) {
 
-                    boolean isRequiredEntity = false;
+            final AbstractQuest abstractQuest = playerQuests.getQuest(slot);
+            final Progression progression = playerQuests.getProgression(slot);
+            if (!progression.isAchieved()) {
 
-                    if (abstractQuest instanceof EntityQuest quest) {
+                boolean isRequiredEntity = false;
 
-                        if (quest.getEntityTypes() == null) isRequiredEntity = true;
-                        else {
-                            for (EntityType type : quest.getEntityTypes()) {
-                                isRequiredEntity = (type == entityType);
-                                if (isRequiredEntity) break;
-                            }
-                        }
-
-                        if (isRequiredEntity) {
-                            if (quest.getDyeColor() != null) {
-                                isRequiredEntity = (dyeColor == quest.getDyeColor());
-                            }
-                            if (quest.getEntityNames() != null && !quest.getEntityNames().isEmpty()) {
-                                isRequiredEntity = (quest.getEntityNames().contains(entityName));
-                            }
-                        }
-
-                    } else {
-                        isRequiredEntity = true;
-                    }
+                if (abstractQuest instanceof EntityQuest quest) {
+                    isRequiredEntity = quest.matches(entityType, entityName, dyeColor);
+                } else {
+                    isRequiredEntity = true;
+                }
 
-                    if (isRequiredEntity) {
-                        increaseProgression(player, progression, abstractQuest, amount);
-                        if (!Synchronization.isSynchronised()) {
-                            break;
-                        }
+                if (isRequiredEntity) {
+                    increaseProgression(player, progression, abstractQuest, amount);
+                    if (!Synchronization.isSynchronised()) {
+                        break;
                     }
                 }
             }
@@ -3,15 +3,13 @@ package com.ordwen.odailyquests.quests.player.progression.checkers;
 import com.ordwen.odailyquests.configuration.essentials.Synchronization;
 import com.ordwen.odailyquests.configuration.functionalities.DisabledWorlds;
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
 import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.AbstractProgressionIncreaser;
 import com.ordwen.odailyquests.quests.player.progression.Progression;
-import com.ordwen.odailyquests.quests.types.AbstractQuest;
 import com.ordwen.odailyquests.tools.PluginLogger;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
-
 public abstract class AbstractGlobalChecker extends AbstractProgressionIncreaser {
 
     /**
@@ -22,22 +20,24 @@ public abstract class AbstractGlobalChecker extends AbstractProgressionIncreaser
      * @param questType the quest type to increase progression for.
      */
     public void setPlayerQuestProgression(Player player, int amount, QuestType questType) {
-        if (!QuestsManager.getActiveQuests().containsKey(player.getName())) {
+        final PlayerQuests playerQuests = QuestsManager.getActiveQuests().get(player);
+        if (playerQuests == null) {
             PluginLogger.warn(player.getName() + " is not in the active quests list.");
             return;
         }
 
-        if (DisabledWorlds.isWorldDisabled(player.getWorld().getName())) {
+        final int[] slots = playerQuests.getQuestSlots(questType);
+        if (slots.length == 0) return;
+
+        if (DisabledWorlds.isWorldDisabled(player.getWorld())) {
             return;
         }
 
-        final HashMap<AbstractQuest, Progression> playerQuests = QuestsManager.getActiveQuests().get(player.getName()).getPlayerQuests();
-
-        for (AbstractQuest abstractQuest : playerQuests.keySet()) {
+        for (int slot : slots) {
 
-            final Progression progression = playerQuests.get(abstractQuest);
-            if (!progression.isAchieved() && abstractQuest.getQuestType() == questType) {
-                increaseProgression(player, progression, abstractQuest, amount);
+            final Progression progression = playerQuests.getProgression(slot);
+            if (!progression.isAchieved()) {
+                increaseProgression(player, progression, playerQuests.getQuest(slot), amount);
                 if (!Synchronization.isSynchronised()) {
                     break;
                 }
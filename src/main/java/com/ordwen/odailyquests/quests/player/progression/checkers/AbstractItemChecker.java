@@ -7,13 +7,12 @@ import com.ordwen.odailyquests.quests.player.progression.AbstractProgressionIncr
 import com.ordwen.odailyquests.quests.types.AbstractQuest;
 import com.ordwen.odailyquests.quests.types.ItemQuest;
 import com.ordwen.odailyquests.enums.QuestType;
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
 import com.ordwen.odailyquests.quests.player.QuestsManager;
 import com.ordwen.odailyquests.quests.player.progression.Progression;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.HashMap;
-
 public abstract class AbstractItemChecker extends AbstractProgressionIncreaser {
 
     /**
@@ -26,51 +25,36 @@ public abstract class AbstractItemChecker extends AbstractProgressionIncreaser {
      */
     public void setPlayerQuestProgression(Player player, ItemStack itemStack, int amount, QuestType questType, String id) {
 
-        if (DisabledWorlds.isWorldDisabled(player.getWorld().getName())) {
-            return;
-        }
-
-        if (QuestsManager.getActiveQuests().containsKey(player.getName())) {
+        final PlayerQuests playerQuests = QuestsManager.getActiveQuests().get(player);
+        if (playerQuests == null) return;
 
-            final HashMap<AbstractQuest, Progression> playerQuests = QuestsManager.getActiveQuests().get(player.getName()).getPlayerQuests();
+        final int[] slots = playerQuests.getQuestSlots(questType);
+        if (slots.length == 0) return;
 
-            for (AbstractQuest abstractQuest : playerQuests.keySet()) {
+        if (DisabledWorlds.isWorldDisabled(player.getWorld())) {
+            return;
+        }
 
-                final Progression progression = playerQuests.get(abstractQuest);
-                if (!progression.isAchieved() && abstractQuest.getQuestType() == questType) {
+        for (int slot : slots) {
 
-                    boolean isRequiredItem = false;
+            final AbstractQuest abstractQuest = playerQuests.getQuest(slot);
+            final Progression progression = playerQuests.getProgression(slot);
+            if (!progression.isAchieved()) {
 
-                    if (abstractQuest instanceof GlobalQuest) {
-                        isRequiredItem = true;
-                    } else if (abstractQuest instanceof ItemQuest quest) {
+                boolean isRequiredItem = false;
 
-                        if (quest.getRequiredItems() == null) isRequiredItem = true;
-                        else {
-                            for (ItemStack item : quest.getRequiredItems()) {
+                if (abstractQuest instanceof GlobalQuest) {
+                    isRequiredItem = true;
+                } else if (abstractQuest instanceof ItemQuest quest) {
 
-                                if (item.hasItemMeta() && item.getItemMeta().hasCustomModelData()) {
-                                    if (itemStack.hasItemMeta() && itemStack.getItemMeta().hasCustomModelData()) {
-                                        if (itemStack.getType() == item.getType() && itemStack.getItemMeta().getCustomModelData() == item.getItemMeta().getCustomModelData()) {
-                                            isRequiredItem = true;
-                                            break;
-                                        }
-                                    }
-                                } else {
-                                    if (item.isSimilar(itemStack)) {
-                                        isRequiredItem = true;
-                                        break;
-                                    }
-                                }
-                            }
-                        }
-                    }
+                    if (quest.getItemMatcher() == null) isRequiredItem = true;
+                    else isRequiredItem = quest.getItemMatcher().matches(itemStack);
+                }
 
-                    if (isRequiredItem) {
-                        increaseProgression(player, progression, abstractQuest, amount);
-                        if (!Synchronization.isSynchronised()) {
-                            break;
-                        }
+                if (isRequiredItem) {
+                    increaseProgression(player, progression, abstractQuest, amount);
+                    if (!Synchronization.isSynchronised()) {
+                        break;
                     }
                 }
             }
@@ -15,8 +15,11 @@ public class QuestCompletedListener implements Listener {
         final var progression = event.getProgression();
         final var quest = event.getAbstractQuest();
 
+        final var playerQuests = QuestsManager.getActiveQuests().get(player);
+
         progression.setAchieved();
+        playerQuests.markDirty(progression);
         RewardManager.sendAllRewardItems(PAPIHook.getPlaceholders(player, quest.getQuestName()), player, quest.getReward());
-        QuestsManager.getActiveQuests().get(player.getName()).increaseAchievedQuests(quest.getCategoryName(), player);
+        playerQuests.increaseAchievedQuests(quest.getCategoryName(), player);
     }
 }
@@ -0,0 +1,53 @@
+package com.ordwen.odailyquests.quests.player.progression.storage;
+
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
+
+/**
+ * Result of a progression load, waiting to be activated on the main thread.
+ */
+public class LoadedProgression {
+
+    private final PlayerQuests playerQuests;
+    private final boolean isRenewed;
+    private final long loadTime;
+
+    /**
+     * Constructor.
+     *
+     * @param playerQuests loaded or newly drawn quests.
+     * @param isRenewed    true if the quests have just been drawn.
+     */
+    public LoadedProgression(PlayerQuests playerQuests, boolean isRenewed) {
+        this.playerQuests = playerQuests;
+        this.isRenewed = isRenewed;
+        this.loadTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Get the player quests.
+     *
+     * @return player quests.
+     */
+    public PlayerQuests getPlayerQuests() {
+        return playerQuests;
+    }
+
+    /**
+     * Check if the quests have just been drawn.
+     *
+     * @return true if renewed.
+     */
+    public boolean isRenewed() {
+        return isRenewed;
+    }
+
+    /**
+     * Check if the result is older than the given delay.
+     *
+     * @param timeout delay in milliseconds.
+     * @return true if expired.
+     */
+    public boolean isExpired(long timeout) {
+        return System.currentTimeMillis() - loadTime > timeout;
+    }
+}
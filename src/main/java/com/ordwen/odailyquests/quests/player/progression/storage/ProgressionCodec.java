@@ -0,0 +1,147 @@
+package com.ordwen.odailyquests.quests.player.progression.storage;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of the progression of a player, shared by the binary storage backends.
+ * <p>
+ * Layout: version (byte), UUID (2 longs), player name (short length + UTF-8 bytes), timestamp (long),
+ * achieved quests (int), total achieved quests (int), rerolls (int), quests count (short),
+ * then for each quest: quest id (short length + UTF-8 bytes, empty if unknown), quest index (int), progress (int), achieved (byte).
+ * Records of version 1 have no quest id and records of versions 1 and 2 have no rerolls, they are still read with no reroll.
+ */
+public final class ProgressionCodec {
+
+    private static final byte VERSION = 3;
+
+    /* first version, without quest ids */
+    private static final byte VERSION_WITHOUT_IDS = 1;
+
+    /* second version, without rerolls */
+    private static final byte VERSION_WITHOUT_REROLLS = 2;
+
+    private static final int QUEST_SIZE = Integer.BYTES * 2 + 1;
+
+    private ProgressionCodec() {
+    }
+
+    /**
+     * Encode the progression of a player.
+     *
+     * @param uuid     UUID of the player.
+     * @param snapshot progression to encode.
+     * @return encoded progression.
+     */
+    public static byte[] encode(UUID uuid, ProgressionSnapshot snapshot) {
+        final byte[] name = snapshot.getPlayerName().getBytes(StandardCharsets.UTF_8);
+        final int count = snapshot.getQuestsCount();
+
+        final byte[][] questIds = new byte[count][];
+        int questIdsSize = 0;
+        for (int slot = 0; slot < count; slot++) {
+            final String questId = snapshot.getQuestId(slot);
+            questIds[slot] = questId == null ? new byte[0] : questId.getBytes(StandardCharsets.UTF_8);
+            questIdsSize += Short.BYTES + questIds[slot].length;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(1 + Long.BYTES * 2 + Short.BYTES + name.length
+                + Long.BYTES + Integer.BYTES * 3 + Short.BYTES + questIdsSize + count * QUEST_SIZE);
+
+        buffer.put(VERSION);
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+        buffer.putShort((short) name.length);
+        buffer.put(name);
+        buffer.putLong(snapshot.getTimestamp());
+        buffer.putInt(snapshot.getAchievedQuests());
+        buffer.putInt(snapshot.getTotalAchievedQuests());
+        buffer.putInt(snapshot.getRerolls());
+        buffer.putShort((short) count);
+
+        for (int slot = 0; slot < count; slot++) {
+            buffer.putShort((short) questIds[slot].length);
+            buffer.put(questIds[slot]);
+            buffer.putInt(snapshot.getQuestIndex(slot));
+            buffer.putInt(snapshot.getProgress(slot));
+            buffer.put((byte) (snapshot.isAchieved(slot) ? 1 : 0));
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Read the UUID of an encoded progression.
+     *
+     * @param data encoded progression.
+     * @return UUID of the player.
+     * @throws IllegalArgumentException if the data is not a valid progression.
+     */
+    public static UUID decodeUniqueId(byte[] data) {
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        checkVersion(buffer);
+
+        try {
+            return new UUID(buffer.getLong(), buffer.getLong());
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated progression record.", e);
+        }
+    }
+
+    /**
+     * Decode the progression of a player.
+     *
+     * @param data encoded progression.
+     * @return decoded progression.
+     * @throws IllegalArgumentException if the data is not a valid progression.
+     */
+    public static ProgressionSnapshot decode(byte[] data) {
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+        final byte version = checkVersion(buffer);
+
+        try {
+            buffer.position(buffer.position() + Long.BYTES * 2);
+
+            final byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+
+            final long timestamp = buffer.getLong();
+            final int achievedQuests = buffer.getInt();
+            final int totalAchievedQuests = buffer.getInt();
+            final int rerolls = version == VERSION ? buffer.getInt() : 0;
+
+            final int count = buffer.getShort();
+            final String[] questIds = new String[count];
+            final int[] questIndexes = new int[count];
+            final int[] progress = new int[count];
+            final boolean[] achieved = new boolean[count];
+
+            for (int slot = 0; slot < count; slot++) {
+                if (version != VERSION_WITHOUT_IDS) {
+                    final byte[] questId = new byte[buffer.getShort()];
+                    buffer.get(questId);
+                    if (questId.length > 0) questIds[slot] = new String(questId, StandardCharsets.UTF_8);
+                }
+                questIndexes[slot] = buffer.getInt();
+                progress[slot] = buffer.getInt();
+                achieved[slot] = buffer.get() != 0;
+            }
+
+            return new ProgressionSnapshot(new String(name, StandardCharsets.UTF_8), timestamp, achievedQuests, totalAchievedQuests, rerolls,
+                    questIds, questIndexes, progress, achieved, new BitSet());
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("Truncated progression record.", e);
+        }
+    }
+
+    private static byte checkVersion(ByteBuffer buffer) {
+        final byte version = buffer.hasRemaining() ? buffer.get() : 0;
+        if (version != VERSION && version != VERSION_WITHOUT_REROLLS && version != VERSION_WITHOUT_IDS) {
+            throw new IllegalArgumentException("Unknown progression record version.");
+        }
+        return version;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ordwen.odailyquests.quests.player.progression.storage;
+
+import com.ordwen.odailyquests.ODailyQuests;
+import com.ordwen.odailyquests.configuration.essentials.AutoSave;
+import com.ordwen.odailyquests.configuration.essentials.Debugger;
+import com.ordwen.odailyquests.configuration.essentials.Modes;
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
+import com.ordwen.odailyquests.tools.PluginLogger;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Periodically saves the players whose progression changed since their last save.
+ */
+public class ProgressionFlusher {
+
+    private final ODailyQuests plugin;
+
+    /* players waiting to be saved by the current flush */
+    private final Deque<String> pending = new ArrayDeque<>();
+
+    private BukkitTask timerTask;
+    private BukkitTask batchTask;
+
+    public ProgressionFlusher(ODailyQuests plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start the autosave according to the configuration. Restart it if already running.
+     */
+    public void start() {
+        stop();
+        if (!AutoSave.isEnabled()) return;
+
+        final long ticks = AutoSave.getInterval() * 20L;
+        timerTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, ticks, ticks);
+    }
+
+    /**
+     * Stop the autosave. Players still pending are left to the next save.
+     */
+    public void stop() {
+        if (timerTask != null) {
+            timerTask.cancel();
+            timerTask = null;
+        }
+        if (batchTask != null) {
+            batchTask.cancel();
+            batchTask = null;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Queue all dirty players and save them in batches, one batch per tick.
+     */
+    private void flush() {
+        if (!pending.isEmpty()) return;
+
+        for (Map.Entry<String, PlayerQuests> entry : QuestsManager.getActiveQuests().getPlayersByName().entrySet()) {
+            if (isToSave(entry.getKey(), entry.getValue())) pending.add(entry.getKey());
+        }
+
+        if (pending.isEmpty()) return;
+        Debugger.addDebug("Autosave: " + pending.size() + " player(s) to save.");
+
+        batchTask = Bukkit.getScheduler().runTaskTimer(plugin, this::saveBatch, 0L, 1L);
+    }
+
+    private void saveBatch() {
+        final Map<String, PlayerQuests> batch = new LinkedHashMap<>();
+
+        while (batch.size() < AutoSave.getBatchSize() && !pending.isEmpty()) {
+            final String playerName = pending.poll();
+            final PlayerQuests playerQuests = QuestsManager.getActiveQuests().get(playerName);
+
+            if (playerQuests != null && isToSave(playerName, playerQuests)) {
+                batch.put(playerName, playerQuests);
+            }
+        }
+
+        if (!batch.isEmpty()) save(batch);
+
+        if (pending.isEmpty() && batchTask != null) {
+            batchTask.cancel();
+            batchTask = null;
+        }
+    }
+
+    /**
+     * Check if a player must be saved. Players whose previous write is not done yet are left to the next flush.
+     *
+     * @param playerName   name of the player.
+     * @param playerQuests quests of the player.
+     * @return true if the player has unsaved changes and no pending write.
+     */
+    private boolean isToSave(String playerName, PlayerQuests playerQuests) {
+        return playerQuests.isDirty() && !plugin.getProgressionWriter().isWriting(playerName);
+    }
+
+    private void save(Map<String, PlayerQuests> batch) {
+        switch (Modes.getStorageMode()) {
+            case "YAML" -> {
+                if (plugin.getYamlManager() == null) return;
+                for (Map.Entry<String, PlayerQuests> entry : batch.entrySet()) {
+                    final UUID uuid = QuestsManager.getActiveQuests().getUniqueId(entry.getKey());
+                    plugin.getYamlManager().getSaveProgressionYAML().saveProgression(uuid, entry.getKey(), entry.getValue(), true);
+                }
+            }
+            case "MySQL", "H2" -> {
+                if (plugin.getSQLManager() != null) plugin.getSQLManager().getSaveProgressionSQL().saveProgressions(batch, true);
+            }
+            case "BINARY" -> {
+                if (plugin.getBinaryManager() != null) plugin.getBinaryManager().getSaveProgressionBinary().saveProgressions(batch, true);
+            }
+            case "MVStore" -> {
+                if (plugin.getMVStoreManager() != null) plugin.getMVStoreManager().getSaveProgressionMVStore().saveProgressions(batch, true);
+            }
+            default -> PluginLogger.error("Impossible to save player quests : the selected storage mode is incorrect !");
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.ordwen.odailyquests.quests.player.progression.storage;
+
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
+
+import java.util.BitSet;
+
+/**
+ * Immutable copy of the progression of a player, taken on the main thread and handed to the storage layer.
+ * Asynchronous writers only read snapshots and never touch the live player quests.
+ */
+public final class ProgressionSnapshot {
+
+    private final String playerName;
+    private final long timestamp;
+    private final int achievedQuests;
+    private final int totalAchievedQuests;
+    private final int rerolls;
+
+    /* version of the player data when captured */
+    private final long version;
+
+    /* quest data, by slot */
+    private final String[] questIds;
+    private final int[] questIndexes;
+    private final int[] progress;
+    private final boolean[] achieved;
+
+    /* slots changed since the last save */
+    private final BitSet dirtySlots;
+
+    /* slots whose quest comes from the deterministic draw */
+    private final BitSet derivedSlots;
+
+    /**
+     * Capture the current progression of a player.
+     *
+     * @param playerName   name of the player.
+     * @param playerQuests quests of the player.
+     */
+    public ProgressionSnapshot(String playerName, PlayerQuests playerQuests) {
+        this.playerName = playerName;
+        this.timestamp = playerQuests.getTimestamp();
+        this.achievedQuests = playerQuests.getAchievedQuests();
+        this.totalAchievedQuests = playerQuests.getTotalAchievedQuests();
+        this.rerolls = playerQuests.getRerolls();
+        this.version = playerQuests.getVersion();
+
+        final int size = playerQuests.getQuestsCount();
+        this.questIds = new String[size];
+        this.questIndexes = new int[size];
+        this.progress = new int[size];
+        this.achieved = new boolean[size];
+
+        this.derivedSlots = new BitSet();
+
+        for (int slot = 0; slot < size; slot++) {
+            if (playerQuests.isDerived(slot)) derivedSlots.set(slot);
+            questIds[slot] = playerQuests.getQuest(slot).getQuestId();
+            questIndexes[slot] = playerQuests.getQuest(slot).getQuestIndex();
+            progress[slot] = playerQuests.getProgress(slot);
+            achieved[slot] = playerQuests.isAchieved(slot);
+        }
+
+        this.dirtySlots = playerQuests.getDirtySlots().get(0, size);
+    }
+
+    /**
+     * Create a snapshot from stored values. No slot is marked as changed or derived, and there is no reroll.
+     *
+     * @param playerName          name of the player.
+     * @param timestamp           timestamp of the last quests renew.
+     * @param achievedQuests      number of achieved quests.
+     * @param totalAchievedQuests total number of achieved quests.
+     * @param questIds            quest ids, by slot. Ids are null for data stored before they were saved.
+     * @param questIndexes        quest indexes, by slot.
+     * @param progress            progress, by slot.
+     * @param achieved            achieved statuses, by slot.
+     */
+    public ProgressionSnapshot(String playerName, long timestamp, int achievedQuests, int totalAchievedQuests, String[] questIds, int[] questIndexes, int[] progress, boolean[] achieved) {
+        this(playerName, timestamp, achievedQuests, totalAchievedQuests, 0, questIds, questIndexes, progress, achieved, new BitSet());
+    }
+
+    /**
+     * Create a snapshot from stored values, with quests coming from the deterministic draw. No slot is marked as changed.
+     *
+     * @param playerName          name of the player.
+     * @param timestamp           timestamp of the last quests renew.
+     * @param achievedQuests      number of achieved quests.
+     * @param totalAchievedQuests total number of achieved quests.
+     * @param rerolls             amount of rerolls since the last renewal.
+     * @param questIds            quest ids, by slot. Ids are null for data stored before they were saved.
+     * @param questIndexes        quest indexes, by slot.
+     * @param progress            progress, by slot.
+     * @param achieved            achieved statuses, by slot.
+     * @param derivedSlots        slots whose quest comes from the deterministic draw.
+     */
+    public ProgressionSnapshot(String playerName, long timestamp, int achievedQuests, int totalAchievedQuests, int rerolls,
+                               String[] questIds, int[] questIndexes, int[] progress, boolean[] achieved, BitSet derivedSlots) {
+        this.playerName = playerName;
+        this.timestamp = timestamp;
+        this.achievedQuests = achievedQuests;
+        this.totalAchievedQuests = totalAchievedQuests;
+        this.rerolls = rerolls;
+        this.version = 0;
+        this.questIds = questIds.clone();
+        this.questIndexes = questIndexes.clone();
+        this.progress = progress.clone();
+        this.achieved = achieved.clone();
+        this.dirtySlots = new BitSet();
+        this.derivedSlots = (BitSet) derivedSlots.clone();
+    }
+
+    /**
+     * Get the name of the player.
+     * @return player name.
+     */
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    /**
+     * Get the timestamp of the last quests renew.
+     * @return timestamp.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Get the number of achieved quests.
+     * @return achieved quests.
+     */
+    public int getAchievedQuests() {
+        return achievedQuests;
+    }
+
+    /**
+     * Get the total number of achieved quests.
+     * @return total achieved quests.
+     */
+    public int getTotalAchievedQuests() {
+        return totalAchievedQuests;
+    }
+
+    /**
+     * Get the amount of rerolls since the last renewal.
+     * @return amount of rerolls.
+     */
+    public int getRerolls() {
+        return rerolls;
+    }
+
+    /**
+     * Get the version of the player data when the snapshot was taken.
+     * @return version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the amount of quests.
+     * @return amount of quests.
+     */
+    public int getQuestsCount() {
+        return questIndexes.length;
+    }
+
+    /**
+     * Get the id of the quest at the given slot.
+     * @param slot slot of the quest.
+     * @return quest id, or null if it was not stored.
+     */
+    public String getQuestId(int slot) {
+        return questIds[slot];
+    }
+
+    /**
+     * Get the index of the quest at the given slot.
+     * @param slot slot of the quest.
+     * @return quest index.
+     */
+    public int getQuestIndex(int slot) {
+        return questIndexes[slot];
+    }
+
+    /**
+     * Get the progress of the quest at the given slot.
+     * @param slot slot of the quest.
+     * @return progress.
+     */
+    public int getProgress(int slot) {
+        return progress[slot];
+    }
+
+    /**
+     * Check if the quest at the given slot is achieved.
+     * @param slot slot of the quest.
+     * @return true if achieved.
+     */
+    public boolean isAchieved(int slot) {
+        return achieved[slot];
+    }
+
+    /**
+     * Check if the quest at the given slot comes from the deterministic draw.
+     * @param slot slot of the quest.
+     * @return true if derived.
+     */
+    public boolean isDerived(int slot) {
+        return derivedSlots.get(slot);
+    }
+
+    /**
+     * Get the next slot changed since the last save, starting from the given slot.
+     * @param fromSlot first slot to check.
+     * @return next dirty slot, or -1 if none.
+     */
+    public int nextDirtySlot(int fromSlot) {
+        return dirtySlots.nextSetBit(fromSlot);
+    }
+
+    /**
+     * Get the amount of slots changed since the last save.
+     * @return amount of dirty slots.
+     */
+    public int getDirtySlotsCount() {
+        return dirtySlots.cardinality();
+    }
+}
@@ -0,0 +1,192 @@
+package com.ordwen.odailyquests.quests.player.progression.storage;
+
+import com.ordwen.odailyquests.ODailyQuests;
+import com.ordwen.odailyquests.configuration.essentials.Debugger;
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
+import com.ordwen.odailyquests.tools.PluginLogger;
+import org.bukkit.Bukkit;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the progression writes of all storage modes one after the other, on a single thread,
+ * so that the snapshots of a player are always written in the order they were taken.
+ * Players are marked as saved only once their snapshot has been written, failed writes leave them dirty.
+ */
+public class ProgressionWriter {
+
+    /* maximum time a synchronous write waits for the pending writes of its players, in milliseconds */
+    private static final long SYNC_WAIT_TIMEOUT = 10_000L;
+
+    private final ODailyQuests plugin;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "ODailyQuests-Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /* last write of each player, by player name, until the player is marked as saved */
+    private final Map<String, CompletableFuture<?>> lastWrites = new ConcurrentHashMap<>();
+
+    public ProgressionWriter(ODailyQuests plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Write player snapshots, then mark the written ones as saved. Must be called from the main thread.
+     * Synchronous writes first wait for the pending writes of their players.
+     *
+     * @param snapshots snapshots to write, with the quests they were taken from.
+     * @param write     write of the snapshots, returning the snapshots that have been written.
+     * @param isAsync   whether the write must be done on the writer thread.
+     */
+    public void write(Map<ProgressionSnapshot, PlayerQuests> snapshots, Supplier<Collection<ProgressionSnapshot>> write, boolean isAsync) {
+        if (snapshots.isEmpty()) return;
+
+        if (isAsync && !executor.isShutdown()) {
+            try {
+                final CompletableFuture<Collection<ProgressionSnapshot>> future = CompletableFuture.supplyAsync(write, executor);
+                for (ProgressionSnapshot snapshot : snapshots.keySet()) {
+                    lastWrites.put(snapshot.getPlayerName(), future);
+                }
+
+                /* players stay in writing until they are marked as saved, so that a flush does not write them again meanwhile */
+                future.whenComplete((saved, throwable) -> {
+                    if (throwable != null) {
+                        PluginLogger.error("An error occurred while saving " + snapshots.size() + " player(s) data.");
+                        throwable.printStackTrace();
+                    }
+
+                    final boolean isScheduled = runOnMainThread(() -> {
+                        if (saved != null) markSaved(snapshots, saved);
+                        removeWrites(snapshots, future);
+                    });
+                    if (!isScheduled) removeWrites(snapshots, future);
+                });
+                return;
+            } catch (RejectedExecutionException e) {
+                Debugger.addDebug("The writer is stopped, the progression is written synchronously.");
+            }
+        }
+
+        for (ProgressionSnapshot snapshot : snapshots.keySet()) {
+            awaitWrites(snapshot.getPlayerName(), SYNC_WAIT_TIMEOUT);
+        }
+        markSaved(snapshots, write.get());
+    }
+
+    /**
+     * Mark the written snapshots as saved.
+     *
+     * @param snapshots snapshots that had to be written, with their quests.
+     * @param saved     snapshots that have been written.
+     */
+    private void markSaved(Map<ProgressionSnapshot, PlayerQuests> snapshots, Collection<ProgressionSnapshot> saved) {
+        for (ProgressionSnapshot snapshot : saved) {
+            final PlayerQuests playerQuests = snapshots.get(snapshot);
+            if (playerQuests != null) playerQuests.markSaved(snapshot);
+        }
+
+        if (saved.size() < snapshots.size()) {
+            PluginLogger.warn((snapshots.size() - saved.size()) + " player(s) could not be saved, they will be saved again by the next save.");
+        }
+    }
+
+    /**
+     * Forget the pending write of the given snapshots, unless a more recent write of their player is pending.
+     *
+     * @param snapshots snapshots of the write.
+     * @param future    write.
+     */
+    private void removeWrites(Map<ProgressionSnapshot, PlayerQuests> snapshots, CompletableFuture<?> future) {
+        for (ProgressionSnapshot snapshot : snapshots.keySet()) {
+            lastWrites.remove(snapshot.getPlayerName(), future);
+        }
+    }
+
+    private boolean runOnMainThread(Runnable task) {
+        /* on shutdown, the players left dirty are saved synchronously */
+        if (!plugin.isEnabled()) return false;
+
+        Bukkit.getScheduler().runTask(plugin, task);
+        return true;
+    }
+
+    /**
+     * Wait for the pending writes of a player. Blocking.
+     *
+     * @param playerName    name of the player.
+     * @param timeoutMillis maximum time to wait, in milliseconds.
+     * @return true if the player has no pending write anymore.
+     */
+    public boolean awaitWrites(String playerName, long timeoutMillis) {
+        final CompletableFuture<?> future = lastWrites.get(playerName);
+        if (future == null) return true;
+
+        try {
+            future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException ignored) {
+            /* already logged */
+        } catch (TimeoutException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Run a task on the main thread once the pending writes of a player are done, or immediately if there is none.
+     * Must be called from the main thread.
+     *
+     * @param playerName name of the player.
+     * @param task       task to run.
+     */
+    public void runAfterWrites(String playerName, Runnable task) {
+        final CompletableFuture<?> future = lastWrites.get(playerName);
+        if (future == null) {
+            task.run();
+            return;
+        }
+
+        future.whenComplete((ignored, throwable) -> runOnMainThread(task));
+    }
+
+    /**
+     * Check if a player has pending writes.
+     *
+     * @param playerName name of the player.
+     * @return true if a write of the player is not done, or the player is not marked as saved yet.
+     */
+    public boolean isWriting(String playerName) {
+        return lastWrites.containsKey(playerName);
+    }
+
+    /**
+     * Stop accepting writes and wait for the pending ones. Later writes are done synchronously.
+     *
+     * @param timeoutMillis maximum time to wait, in milliseconds.
+     */
+    public void shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                PluginLogger.error("Some player data could not be written before the shutdown.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
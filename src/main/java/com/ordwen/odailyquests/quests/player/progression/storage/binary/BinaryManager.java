@@ -0,0 +1,81 @@
+package com.ordwen.odailyquests.quests.player.progression.storage.binary;
+
+import com.ordwen.odailyquests.ODailyQuests;
+import com.ordwen.odailyquests.tools.PluginLogger;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+
+public class BinaryManager {
+
+    /* delay between two compaction checks, in ticks */
+    private static final long COMPACTION_PERIOD = 20L * 60L * 5L;
+
+    /* log size above which the log is compacted, in bytes */
+    private static final long COMPACTION_THRESHOLD = 1024L * 1024L;
+
+    private final ProgressionLog progressionLog;
+    private final LoadProgressionBinary loadProgressionBinary;
+    private final SaveProgressionBinary saveProgressionBinary;
+
+    private final BukkitTask compactionTask;
+
+    public BinaryManager(ODailyQuests oDailyQuests) {
+        this.progressionLog = new ProgressionLog(new File(oDailyQuests.getDataFolder(), "binary"));
+
+        try {
+            progressionLog.open();
+            PluginLogger.fine("Binary progression storage successfully loaded.");
+        } catch (IOException e) {
+            PluginLogger.error("An error occurred on the load of the binary progression storage.");
+            PluginLogger.error("Please inform the developer.");
+            e.printStackTrace();
+        }
+
+        this.loadProgressionBinary = new LoadProgressionBinary(progressionLog);
+        this.saveProgressionBinary = new SaveProgressionBinary(progressionLog);
+
+        this.compactionTask = Bukkit.getScheduler().runTaskTimerAsynchronously(oDailyQuests, () -> {
+            if (progressionLog.getLogSize() >= COMPACTION_THRESHOLD) compact();
+        }, COMPACTION_PERIOD, COMPACTION_PERIOD);
+    }
+
+    /**
+     * Compact the progression log into a new snapshot.
+     */
+    public void compact() {
+        try {
+            progressionLog.compact();
+        } catch (IOException e) {
+            PluginLogger.error("An error occurred while compacting the binary progression storage.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Compact the log and close the files. Must be called after the last save.
+     */
+    public void close() {
+        compactionTask.cancel();
+        compact();
+        progressionLog.close();
+    }
+
+    /**
+     * Get LoadProgressionBinary instance.
+     * @return LoadProgressionBinary instance.
+     */
+    public LoadProgressionBinary getLoadProgressionBinary() {
+        return loadProgressionBinary;
+    }
+
+    /**
+     * Get SaveProgressionBinary instance.
+     * @return SaveProgressionBinary instance.
+     */
+    public SaveProgressionBinary getSaveProgressionBinary() {
+        return saveProgressionBinary;
+    }
+}
@@ -0,0 +1,378 @@
+package com.ordwen.odailyquests.quests.player.progression.storage.binary;
+
+import com.ordwen.odailyquests.configuration.essentials.Debugger;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionCodec;
+import com.ordwen.odailyquests.tools.PluginLogger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of encoded player progressions, compacted into snapshot files.
+ * <p>
+ * Each record is stored as its length (int), the encoded progression and a CRC32 (int).
+ * Saves append records to the log. Compaction writes the latest record of each player
+ * into a new snapshot generation, then truncates the log. Snapshots are memory-mapped for reads.
+ * <p>
+ * A snapshot starts with a magic number and the amount of records, and ends with an end marker:
+ * a snapshot without its end marker is incomplete and ignored. All methods are synchronized.
+ */
+public class ProgressionLog {
+
+    private static final int SNAPSHOT_MAGIC = 0x4F445153;
+    private static final int SNAPSHOT_END = 0x454E4421;
+
+    private static final String SNAPSHOT_PREFIX = "progression-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+
+    /* records are a few hundred bytes, anything bigger is a corrupted length */
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+
+    private final File folder;
+    private final File logFile;
+
+    private FileChannel logChannel;
+    private long logSize;
+
+    private int snapshotGeneration;
+    private File snapshotFile;
+    private MappedByteBuffer snapshotBuffer;
+
+    /* location of the latest record of each player: offset in the log if positive, encoded snapshot offset if negative */
+    private Map<UUID, Long> index = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param folder folder of the log and snapshot files.
+     */
+    public ProgressionLog(File folder) {
+        this.folder = folder;
+        this.logFile = new File(folder, "progression.log");
+    }
+
+    /**
+     * Open the files and build the index, from the latest complete snapshot then from the log.
+     *
+     * @throws IOException if the files can't be opened.
+     */
+    public synchronized void open() throws IOException {
+        Files.createDirectories(folder.toPath());
+
+        loadSnapshot();
+
+        logChannel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        replayLog();
+
+        Debugger.addDebug("Binary storage opened: " + index.size() + " player(s), log size " + logSize + " bytes.");
+    }
+
+    /**
+     * Read the latest record of a player.
+     *
+     * @param uuid UUID of the player.
+     * @return encoded progression, or null if the player has no record.
+     * @throws IOException if the record can't be read.
+     */
+    public synchronized byte[] read(UUID uuid) throws IOException {
+        ensureOpen();
+
+        final Long location = index.get(uuid);
+        if (location == null) return null;
+
+        return location >= 0 ? readLogRecord(location) : readSnapshotRecord(snapshotBuffer, toSnapshotOffset(location));
+    }
+
+    /**
+     * Append records to the log, in a single write.
+     *
+     * @param records encoded progressions, by player UUID.
+     * @throws IOException if the records can't be written.
+     */
+    public synchronized void append(Map<UUID, byte[]> records) throws IOException {
+        ensureOpen();
+        if (records.isEmpty()) return;
+
+        int size = 0;
+        for (byte[] payload : records.values()) {
+            size += Integer.BYTES * 2 + payload.length;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        final Map<UUID, Long> locations = new HashMap<>();
+
+        for (Map.Entry<UUID, byte[]> entry : records.entrySet()) {
+            locations.put(entry.getKey(), logSize + buffer.position());
+            putRecord(buffer, entry.getValue());
+        }
+
+        buffer.flip();
+        long position = logSize;
+        while (buffer.hasRemaining()) {
+            position += logChannel.write(buffer, position);
+        }
+        logChannel.force(false);
+
+        logSize = position;
+        index.putAll(locations);
+    }
+
+    /**
+     * Write the latest record of each player into a new snapshot, then truncate the log.
+     *
+     * @throws IOException if the snapshot can't be written.
+     */
+    public synchronized void compact() throws IOException {
+        ensureOpen();
+        if (logSize == 0) return;
+
+        final int generation = snapshotGeneration + 1;
+        final File file = new File(folder, SNAPSHOT_PREFIX + generation + SNAPSHOT_SUFFIX);
+        final Map<UUID, Long> newIndex = new HashMap<>();
+
+        try (FileOutputStream fileStream = new FileOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileStream))) {
+
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(index.size());
+            long offset = Integer.BYTES * 2;
+
+            for (UUID uuid : index.keySet()) {
+                final byte[] payload = read(uuid);
+
+                newIndex.put(uuid, toLocation(offset));
+                out.writeInt(payload.length);
+                out.write(payload);
+                out.writeInt(checksum(payload));
+                offset += Integer.BYTES * 2 + payload.length;
+            }
+
+            out.writeInt(SNAPSHOT_END);
+            out.flush();
+            fileStream.getFD().sync();
+        }
+
+        final File previousFile = snapshotFile;
+
+        snapshotBuffer = map(file);
+        snapshotFile = file;
+        snapshotGeneration = generation;
+        index = newIndex;
+
+        /* the log is only truncated once the snapshot is safely written */
+        logChannel.truncate(0);
+        logChannel.force(true);
+        logSize = 0;
+
+        if (previousFile != null && !previousFile.delete()) {
+            Debugger.addDebug("Previous binary snapshot " + previousFile.getName() + " will be deleted on next start.");
+        }
+
+        Debugger.addDebug("Binary storage compacted: " + index.size() + " player(s) in " + file.getName() + ".");
+    }
+
+    /**
+     * Get the size of the log, in bytes.
+     *
+     * @return log size.
+     */
+    public synchronized long getLogSize() {
+        return logSize;
+    }
+
+    /**
+     * Close the files.
+     */
+    public synchronized void close() {
+        if (logChannel == null) return;
+
+        try {
+            logChannel.force(true);
+            logChannel.close();
+        } catch (IOException e) {
+            PluginLogger.error("An error occurred while closing the binary progression log.");
+            e.printStackTrace();
+        }
+
+        logChannel = null;
+        snapshotBuffer = null;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (logChannel == null) throw new IOException("The binary progression storage is not open.");
+    }
+
+    /**
+     * Load the latest complete snapshot into the index, and delete the older ones.
+     */
+    private void loadSnapshot() {
+        final File[] files = folder.listFiles((dir, name) -> name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX));
+        if (files == null) return;
+
+        final Map<Integer, File> generations = new HashMap<>();
+        for (File file : files) {
+            final String name = file.getName();
+            try {
+                generations.put(Integer.parseInt(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length())), file);
+            } catch (NumberFormatException ignored) {
+                // not a snapshot file
+            }
+        }
+
+        generations.keySet().stream().sorted((a, b) -> b - a).forEach(generation -> {
+            final File file = generations.get(generation);
+
+            if (snapshotFile == null && readSnapshot(file)) {
+                snapshotFile = file;
+                snapshotGeneration = generation;
+            }
+
+            /* incomplete snapshots and snapshots older than the loaded one */
+            else if (!file.delete()) {
+                Debugger.addDebug("Unable to delete old binary snapshot " + file.getName() + ".");
+            }
+        });
+    }
+
+    /**
+     * Map a snapshot and index its records.
+     *
+     * @param file snapshot file.
+     * @return true if the snapshot is complete and valid.
+     */
+    private boolean readSnapshot(File file) {
+        try {
+            final MappedByteBuffer buffer = map(file);
+            if (buffer.limit() < Integer.BYTES * 3
+                    || buffer.getInt(0) != SNAPSHOT_MAGIC
+                    || buffer.getInt(buffer.limit() - Integer.BYTES) != SNAPSHOT_END) {
+                PluginLogger.warn("Binary snapshot " + file.getName() + " is incomplete, it will be ignored.");
+                return false;
+            }
+
+            final int count = buffer.getInt(Integer.BYTES);
+            final Map<UUID, Long> snapshotIndex = new HashMap<>();
+
+            long offset = Integer.BYTES * 2;
+            for (int i = 0; i < count; i++) {
+                final byte[] payload = readSnapshotRecord(buffer, offset);
+                snapshotIndex.put(ProgressionCodec.decodeUniqueId(payload), toLocation(offset));
+                offset += Integer.BYTES * 2 + payload.length;
+            }
+
+            index = snapshotIndex;
+            snapshotBuffer = buffer;
+            return true;
+        } catch (IOException | IllegalArgumentException | BufferUnderflowException e) {
+            PluginLogger.warn("Binary snapshot " + file.getName() + " is corrupted, it will be ignored.");
+            Debugger.addDebug(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Index the records of the log. A truncated or corrupted tail, left by a crash during a write, is discarded.
+     *
+     * @throws IOException if the log can't be read.
+     */
+    private void replayLog() throws IOException {
+        final long size = logChannel.size();
+        long position = 0;
+
+        while (position < size) {
+            final byte[] payload;
+            try {
+                payload = readLogRecord(position);
+                index.put(ProgressionCodec.decodeUniqueId(payload), position);
+            } catch (IOException | IllegalArgumentException e) {
+                break;
+            }
+            position += Integer.BYTES * 2 + payload.length;
+        }
+
+        if (position < size) {
+            PluginLogger.warn("The binary progression log has an incomplete record at its end, it has been discarded.");
+            logChannel.truncate(position);
+        }
+
+        logSize = position;
+    }
+
+    private byte[] readLogRecord(long position) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        readFully(header, position);
+
+        final int length = header.flip().getInt();
+        if (length <= 0 || length > MAX_RECORD_SIZE) throw new IOException("Invalid record length at " + position + ".");
+
+        final ByteBuffer record = ByteBuffer.allocate(length + Integer.BYTES);
+        readFully(record, position + Integer.BYTES);
+        record.flip();
+
+        return checkRecord(record, length, position);
+    }
+
+    private byte[] readSnapshotRecord(ByteBuffer snapshot, long offset) throws IOException {
+        final ByteBuffer buffer = snapshot.duplicate();
+        buffer.position(Math.toIntExact(offset));
+
+        final int length = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining() - Integer.BYTES) throw new IOException("Invalid record length at " + offset + ".");
+
+        return checkRecord(buffer, length, offset);
+    }
+
+    private byte[] checkRecord(ByteBuffer buffer, int length, long position) throws IOException {
+        final byte[] payload = new byte[length];
+        buffer.get(payload);
+
+        if (buffer.getInt() != checksum(payload)) throw new IOException("Invalid record checksum at " + position + ".");
+        return payload;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            final int read = logChannel.read(buffer, position + buffer.position());
+            if (read < 0) throw new IOException("Unexpected end of the binary progression log.");
+        }
+    }
+
+    private static void putRecord(ByteBuffer buffer, byte[] payload) {
+        buffer.putInt(payload.length);
+        buffer.put(payload);
+        buffer.putInt(checksum(payload));
+    }
+
+    private static int checksum(byte[] payload) {
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static MappedByteBuffer map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static long toLocation(long snapshotOffset) {
+        return -snapshotOffset - 1;
+    }
+
+    private static long toSnapshotOffset(long location) {
+        return -location - 1;
+    }
+}
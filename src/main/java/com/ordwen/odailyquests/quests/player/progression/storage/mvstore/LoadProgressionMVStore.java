@@ -0,0 +1,77 @@
+package com.ordwen.odailyquests.quests.player.progression.storage.mvstore;
+
+import com.ordwen.odailyquests.ODailyQuests;
+import com.ordwen.odailyquests.configuration.essentials.Debugger;
+import com.ordwen.odailyquests.quests.player.PlayerQuestsRegistry;
+import com.ordwen.odailyquests.quests.player.progression.Utils;
+import com.ordwen.odailyquests.quests.player.progression.storage.LoadedProgression;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionCodec;
+import com.ordwen.odailyquests.tools.PluginLogger;
+import org.bukkit.Bukkit;
+import org.h2.mvstore.MVStoreException;
+
+import java.util.UUID;
+
+public class LoadProgressionMVStore {
+
+    /* instance of MVStoreManager */
+    private final MVStoreManager mvStoreManager;
+
+    /**
+     * Constructor.
+     *
+     * @param mvStoreManager instance of MVStoreManager.
+     */
+    public LoadProgressionMVStore(MVStoreManager mvStoreManager) {
+        this.mvStoreManager = mvStoreManager;
+    }
+
+    /**
+     * Load player quests progression asynchronously, then activate them on the main thread.
+     *
+     * @param uuid         UUID of the player.
+     * @param playerName   name of the player.
+     * @param activeQuests active quests registry.
+     */
+    public void loadProgression(UUID uuid, String playerName, PlayerQuestsRegistry activeQuests, int questsConfigMode, int timestampConfigMode, int temporalityMode) {
+        Bukkit.getScheduler().runTaskAsynchronously(ODailyQuests.INSTANCE, () -> {
+            final LoadedProgression loaded = fetchProgression(uuid, playerName, questsConfigMode, timestampConfigMode, temporalityMode);
+            if (loaded == null) return;
+
+            Bukkit.getScheduler().runTask(ODailyQuests.INSTANCE, () -> Utils.activatePlayerQuests(playerName, activeQuests, loaded));
+        });
+    }
+
+    /**
+     * Load player quests progression from the store, or draw new quests if needed.
+     *
+     * @param uuid       UUID of the player.
+     * @param playerName name of the player.
+     * @return loaded progression, or null if the stored progression could not be read.
+     */
+    public LoadedProgression fetchProgression(UUID uuid, String playerName, int questsConfigMode, int timestampConfigMode, int temporalityMode) {
+        final byte[] data;
+        try {
+            data = mvStoreManager.read(uuid);
+        } catch (MVStoreException e) {
+            PluginLogger.error("An error occurred while loading player " + playerName + "'s quests progression.");
+            Debugger.addDebug(e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+
+        Debugger.addDebug("Player " + playerName + (data != null ? " has stored data." : " has no stored data."));
+
+        if (data == null) {
+            return new LoadedProgression(Utils.createNewPlayerQuests(uuid, timestampConfigMode, 0), true);
+        }
+
+        try {
+            return Utils.restorePlayerQuests(uuid, ProgressionCodec.decode(data), questsConfigMode, timestampConfigMode, temporalityMode);
+        } catch (IllegalArgumentException e) {
+            PluginLogger.error("The stored quests progression of player " + playerName + " is corrupted.");
+            Debugger.addDebug(e.getMessage());
+            return null;
+        }
+    }
+}
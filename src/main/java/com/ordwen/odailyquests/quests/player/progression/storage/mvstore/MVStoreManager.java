@@ -0,0 +1,100 @@
+package com.ordwen.odailyquests.quests.player.progression.storage.mvstore;
+
+import com.ordwen.odailyquests.ODailyQuests;
+import com.ordwen.odailyquests.tools.PluginLogger;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+
+import java.io.File;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Key-value progression storage, using the MVStore engine bundled with H2.
+ * Each player is a single entry, keyed by UUID, holding the encoded progression.
+ * Writes are only kept in memory until the next commit, which is done on a timer.
+ */
+public class MVStoreManager {
+
+    /* delay between two commits, in ticks */
+    private static final long COMMIT_PERIOD = 20L;
+
+    private static final String MAP_NAME = "progression";
+
+    private final MVStore store;
+    private final MVMap<UUID, byte[]> progressionMap;
+
+    private final LoadProgressionMVStore loadProgressionMVStore;
+    private final SaveProgressionMVStore saveProgressionMVStore;
+
+    private final BukkitTask commitTask;
+
+    public MVStoreManager(ODailyQuests oDailyQuests) {
+        this.store = new MVStore.Builder()
+                .fileName(new File(oDailyQuests.getDataFolder(), "progression.mv").getPath())
+                .autoCommitDisabled()
+                .compress()
+                .open();
+        this.progressionMap = store.openMap(MAP_NAME);
+
+        this.loadProgressionMVStore = new LoadProgressionMVStore(this);
+        this.saveProgressionMVStore = new SaveProgressionMVStore(this);
+
+        this.commitTask = Bukkit.getScheduler().runTaskTimerAsynchronously(oDailyQuests, this::commit, COMMIT_PERIOD, COMMIT_PERIOD);
+
+        PluginLogger.fine("MVStore progression storage successfully loaded (" + progressionMap.size() + " player(s)).");
+    }
+
+    /**
+     * Read the stored progression of a player.
+     *
+     * @param uuid UUID of the player.
+     * @return encoded progression, or null if the player has no stored progression.
+     */
+    public byte[] read(UUID uuid) {
+        return progressionMap.get(uuid);
+    }
+
+    /**
+     * Store progressions. They are written to disk on the next commit.
+     *
+     * @param records encoded progressions, by player UUID.
+     */
+    public void write(Map<UUID, byte[]> records) {
+        progressionMap.putAll(records);
+    }
+
+    /**
+     * Write the pending changes to disk, if any.
+     */
+    public void commit() {
+        if (store.isClosed() || !store.hasUnsavedChanges()) return;
+        store.commit();
+    }
+
+    /**
+     * Commit the pending changes and close the store. Must be called after the last save.
+     */
+    public void close() {
+        commitTask.cancel();
+        store.close();
+    }
+
+    /**
+     * Get LoadProgressionMVStore instance.
+     * @return LoadProgressionMVStore instance.
+     */
+    public LoadProgressionMVStore getLoadProgressionMVStore() {
+        return loadProgressionMVStore;
+    }
+
+    /**
+     * Get SaveProgressionMVStore instance.
+     * @return SaveProgressionMVStore instance.
+     */
+    public SaveProgressionMVStore getSaveProgressionMVStore() {
+        return saveProgressionMVStore;
+    }
+}
@@ -0,0 +1,110 @@
+package com.ordwen.odailyquests.quests.player.progression.storage.mvstore;
+
+import com.ordwen.odailyquests.ODailyQuests;
+import com.ordwen.odailyquests.configuration.essentials.Debugger;
+import com.ordwen.odailyquests.configuration.essentials.Logs;
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionCodec;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionSnapshot;
+import com.ordwen.odailyquests.tools.PluginLogger;
+import org.h2.mvstore.MVStoreException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class SaveProgressionMVStore {
+
+    /* instance of MVStoreManager */
+    private final MVStoreManager mvStoreManager;
+
+    /**
+     * Constructor.
+     *
+     * @param mvStoreManager instance of MVStoreManager.
+     */
+    public SaveProgressionMVStore(MVStoreManager mvStoreManager) {
+        this.mvStoreManager = mvStoreManager;
+    }
+
+    /**
+     * Save player quests progression.
+     *
+     * @param uuid         UUID of the player.
+     * @param playerName   name of the player.
+     * @param playerQuests player quests.
+     * @param isAsync      whether the store must be updated asynchronously. Synchronous saves are committed immediately.
+     */
+    public void saveProgression(UUID uuid, String playerName, PlayerQuests playerQuests, boolean isAsync) {
+        final Map<UUID, ProgressionSnapshot> snapshots = new LinkedHashMap<>();
+        final Map<ProgressionSnapshot, PlayerQuests> owners = new LinkedHashMap<>();
+
+        final ProgressionSnapshot snapshot = new ProgressionSnapshot(playerName, playerQuests);
+        snapshots.put(uuid, snapshot);
+        owners.put(snapshot, playerQuests);
+
+        saveSnapshots(snapshots, owners, isAsync);
+    }
+
+    /**
+     * Save the quests progression of several active players.
+     *
+     * @param players player quests, by player name.
+     * @param isAsync whether the store must be updated asynchronously. Synchronous saves are committed immediately.
+     */
+    public void saveProgressions(Map<String, PlayerQuests> players, boolean isAsync) {
+        final Map<UUID, ProgressionSnapshot> snapshots = new LinkedHashMap<>();
+        final Map<ProgressionSnapshot, PlayerQuests> owners = new LinkedHashMap<>();
+
+        for (Map.Entry<String, PlayerQuests> entry : players.entrySet()) {
+            final UUID uuid = QuestsManager.getActiveQuests().getUniqueId(entry.getKey());
+            if (uuid == null) {
+                PluginLogger.warn("Impossible to save progression for player " + entry.getKey() + " because their UUID is unknown.");
+                continue;
+            }
+
+            final ProgressionSnapshot snapshot = new ProgressionSnapshot(entry.getKey(), entry.getValue());
+            snapshots.put(uuid, snapshot);
+            owners.put(snapshot, entry.getValue());
+        }
+
+        saveSnapshots(snapshots, owners, isAsync);
+    }
+
+    private void saveSnapshots(Map<UUID, ProgressionSnapshot> snapshots, Map<ProgressionSnapshot, PlayerQuests> owners, boolean isAsync) {
+        ODailyQuests.INSTANCE.getProgressionWriter().write(owners,
+                () -> writeSnapshots(snapshots, !isAsync) ? snapshots.values() : Collections.emptyList(), isAsync);
+    }
+
+    /**
+     * Put the snapshots in the store.
+     *
+     * @param snapshots snapshots to write, by player UUID.
+     * @param commit    whether the store must be committed immediately.
+     * @return true if the snapshots have been written.
+     */
+    private boolean writeSnapshots(Map<UUID, ProgressionSnapshot> snapshots, boolean commit) {
+        final Map<UUID, byte[]> records = new LinkedHashMap<>();
+        for (Map.Entry<UUID, ProgressionSnapshot> entry : snapshots.entrySet()) {
+            records.put(entry.getKey(), ProgressionCodec.encode(entry.getKey(), entry.getValue()));
+        }
+
+        try {
+            mvStoreManager.write(records);
+            if (commit) mvStoreManager.commit();
+        } catch (MVStoreException e) {
+            PluginLogger.error("An error occurred while saving " + snapshots.size() + " player(s) data.");
+            Debugger.addDebug(e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+
+        for (ProgressionSnapshot snapshot : snapshots.values()) {
+            Debugger.addDebug(snapshot.getPlayerName() + " quests progression saved");
+            if (Logs.isEnabled()) PluginLogger.info(snapshot.getPlayerName() + "'s data saved.");
+        }
+        return true;
+    }
+}
@@ -2,12 +2,12 @@ package com.ordwen.odailyquests.quests.player.progression.storage.sql;
 
 import com.ordwen.odailyquests.ODailyQuests;
 import com.ordwen.odailyquests.configuration.essentials.Debugger;
-import com.ordwen.odailyquests.configuration.essentials.QuestsAmount;
-import com.ordwen.odailyquests.enums.QuestsMessages;
-import com.ordwen.odailyquests.quests.types.AbstractQuest;
-import com.ordwen.odailyquests.quests.player.PlayerQuests;
-import com.ordwen.odailyquests.quests.player.progression.Progression;
+import com.ordwen.odailyquests.configuration.essentials.DeterministicDraws;
+import com.ordwen.odailyquests.quests.player.PlayerQuestsRegistry;
 import com.ordwen.odailyquests.quests.player.progression.Utils;
+import com.ordwen.odailyquests.quests.player.progression.storage.LoadedProgression;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionSnapshot;
+import com.ordwen.odailyquests.quests.types.AbstractQuest;
 import com.ordwen.odailyquests.tools.PluginLogger;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -16,8 +16,14 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
 
 public class LoadProgressionSQL {
 
@@ -33,150 +39,313 @@ public class LoadProgressionSQL {
         this.sqlManager = sqlManager;
     }
 
+    /* request, the progression rows are joined to the player row */
+    private static final String LOAD_QUERY =
+            "SELECT PLAYER.PLAYERTIMESTAMP, PLAYER.ACHIEVEDQUESTS, PLAYER.TOTALACHIEVEDQUESTS, PLAYER.REROLLS, " +
+                    "PROGRESSION.PLAYERQUESTID, PROGRESSION.QUESTINDEX, PROGRESSION.QUESTID, PROGRESSION.ADVANCEMENT, PROGRESSION.ISACHIEVED " +
+                    "FROM PLAYER LEFT JOIN PROGRESSION ON PROGRESSION.PLAYERNAME = PLAYER.PLAYERNAME " +
+                    "WHERE PLAYER.PLAYERNAME = ? " +
+                    "ORDER BY PROGRESSION.PLAYERQUESTID";
+
+    /* bulk request, the player names are added as IN parameters */
+    private static final String BULK_LOAD_QUERY =
+            "SELECT PLAYER.PLAYERNAME, PLAYER.PLAYERTIMESTAMP, PLAYER.ACHIEVEDQUESTS, PLAYER.TOTALACHIEVEDQUESTS, PLAYER.REROLLS, " +
+                    "PROGRESSION.PLAYERQUESTID, PROGRESSION.QUESTINDEX, PROGRESSION.QUESTID, PROGRESSION.ADVANCEMENT, PROGRESSION.ISACHIEVED " +
+                    "FROM PLAYER LEFT JOIN PROGRESSION ON PROGRESSION.PLAYERNAME = PLAYER.PLAYERNAME " +
+                    "WHERE PLAYER.PLAYERNAME IN (%s) " +
+                    "ORDER BY PLAYER.PLAYERNAME, PROGRESSION.PLAYERQUESTID";
+
+    /* maximum amount of players per bulk request */
+    private static final int BULK_CHUNK_SIZE = 100;
+
     /**
-     * Load player quests progression.
+     * Load player quests progression asynchronously, then activate them on the main thread.
      *
+     * @param uuid       UUID of the player.
      * @param playerName name of the player.
      */
-    public void loadProgression(String playerName, HashMap<String, PlayerQuests> activeQuests, int questsConfigMode, int timestampConfigMode, int temporalityMode) {
+    public void loadProgression(UUID uuid, String playerName, PlayerQuestsRegistry activeQuests, int questsConfigMode, int timestampConfigMode, int temporalityMode) {
 
         Debugger.addDebug("Entering loadProgression method for player " + playerName + ".");
 
-        LinkedHashMap<AbstractQuest, Progression> quests = new LinkedHashMap<>();
-
-        Bukkit.getScheduler().runTaskLaterAsynchronously(ODailyQuests.INSTANCE, () -> {
+        Bukkit.getScheduler().runTaskAsynchronously(ODailyQuests.INSTANCE, () -> {
 
             Debugger.addDebug("Running async task to load progression of " + playerName + " from SQL database.");
 
-            boolean hasStoredData = false;
-            long timestamp = 0;
-            int achievedQuests = 0;
-            int totalAchievedQuests = 0;
+            final LoadedProgression loaded = fetchProgression(uuid, playerName, questsConfigMode, timestampConfigMode, temporalityMode);
+            if (loaded == null) return;
 
-            try {
-                Connection connection = sqlManager.getConnection();
-                String timestampQuery = "SELECT PLAYERTIMESTAMP,ACHIEVEDQUESTS,TOTALACHIEVEDQUESTS FROM PLAYER WHERE PLAYERNAME = '" + playerName + "'";
-                PreparedStatement preparedStatement = connection.prepareStatement(timestampQuery);
-
-                ResultSet resultSet = preparedStatement.executeQuery();
+            Bukkit.getScheduler().runTask(ODailyQuests.INSTANCE, () -> Utils.activatePlayerQuests(playerName, activeQuests, loaded));
+        });
+    }
 
-                Debugger.addDebug("Executing query for player " + playerName + ": " + timestampQuery);
+    /**
+     * Load player quests progression from the database, or draw new quests if needed.
+     * Blocking, must not be called from the main thread.
+     *
+     * @param uuid       UUID of the player.
+     * @param playerName name of the player.
+     * @return loaded progression, or null if the database could not be read.
+     */
+    public LoadedProgression fetchProgression(UUID uuid, String playerName, int questsConfigMode, int timestampConfigMode, int temporalityMode) {
+
+        boolean hasStoredData = false;
+        long timestamp = 0;
+        int achievedQuests = 0;
+        int totalAchievedQuests = 0;
+        int rerolls = 0;
+
+        /* stored quests, in the order of the player slots */
+        final List<Integer> slots = new ArrayList<>();
+        final List<String> questIds = new ArrayList<>();
+        final List<Integer> questIndexes = new ArrayList<>();
+        final List<Integer> advancements = new ArrayList<>();
+        final List<Boolean> achieved = new ArrayList<>();
+
+        final Connection connection = sqlManager.getConnection();
+        if (connection == null) {
+            PluginLogger.error(ChatColor.RED + "Impossible to load player " + playerName + "'s quests progression : the database is unavailable.");
+            return null;
+        }
 
+        try (connection; PreparedStatement preparedStatement = connection.prepareStatement(LOAD_QUERY)) {
+            preparedStatement.setString(1, playerName);
 
-                if (resultSet.next()) {
-                    hasStoredData = true;
-                    timestamp = resultSet.getLong("PLAYERTIMESTAMP");
-                    achievedQuests = resultSet.getInt("ACHIEVEDQUESTS");
-                    totalAchievedQuests = resultSet.getInt("TOTALACHIEVEDQUESTS");
+            Debugger.addDebug("Executing query for player " + playerName + ": " + LOAD_QUERY);
 
-                    Debugger.addDebug("Player " + playerName + " has stored data.");
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    if (!hasStoredData) {
+                        hasStoredData = true;
+                        timestamp = resultSet.getLong("PLAYERTIMESTAMP");
+                        achievedQuests = resultSet.getInt("ACHIEVEDQUESTS");
+                        totalAchievedQuests = resultSet.getInt("TOTALACHIEVEDQUESTS");
+                        rerolls = resultSet.getInt("REROLLS");
+                    }
 
-                } else {
-                    Debugger.addDebug("Player " + playerName + " has no stored data.");
+                    final int slot = resultSet.getInt("PLAYERQUESTID");
+                    if (resultSet.wasNull()) continue;
 
+                    slots.add(slot);
+                    questIds.add(resultSet.getString("QUESTID"));
+                    questIndexes.add(resultSet.getInt("QUESTINDEX"));
+                    advancements.add(resultSet.getInt("ADVANCEMENT"));
+                    achieved.add(resultSet.getBoolean("ISACHIEVED"));
                 }
+            }
 
-                resultSet.close();
-                preparedStatement.close();
-                connection.close();
+            Debugger.addDebug("Player " + playerName + (hasStoredData ? " has stored data." : " has no stored data."));
+            Debugger.addDebug("Database connection closed.");
 
-                Debugger.addDebug("Database connection closed.");
+        } catch (SQLException e) {
+            PluginLogger.error(ChatColor.RED + "An error occurred while loading player " + playerName + "'s quests progression.");
 
+            Debugger.addDebug("An error occurred while loading player " + playerName + "'s quests progression.");
+            Debugger.addDebug(e.getMessage());
 
-            } catch (SQLException e) {
-                PluginLogger.error(ChatColor.RED + "An error occurred while loading player " + playerName + "'s quests progression.");
+            e.printStackTrace();
+            return null;
+        }
 
-                Debugger.addDebug("An error occurred while loading player " + playerName + "'s quests progression.");
-                Debugger.addDebug(e.getMessage());
+        if (!hasStoredData) {
+            return new LoadedProgression(Utils.createNewPlayerQuests(uuid, timestampConfigMode, 0), true);
+        }
 
-                e.printStackTrace();
-            }
+        return buildProgression(uuid, playerName, timestamp, achievedQuests, totalAchievedQuests, rerolls,
+                slots, questIds, questIndexes, advancements, achieved, questsConfigMode, timestampConfigMode, temporalityMode);
+    }
 
-            if (hasStoredData) {
-                if (Utils.checkTimestamp(timestampConfigMode, temporalityMode, timestamp)) {
-                    Utils.loadNewPlayerQuests(playerName, activeQuests, timestampConfigMode, totalAchievedQuests);
-                } else {
-                    loadPlayerQuests(playerName, questsConfigMode, quests);
-
-                    PlayerQuests playerQuests = new PlayerQuests(timestamp, quests);
-                    playerQuests.setAchievedQuests(achievedQuests);
-                    playerQuests.setTotalAchievedQuests(totalAchievedQuests);
-
-                    if (Bukkit.getPlayer(playerName) != null) {
-                        activeQuests.put(playerName, playerQuests);
-                        PluginLogger.info(playerName + "'s quests have been loaded.");
-                    } else {
-                        PluginLogger.warn("It looks like " + playerName + " has disconnected before his quests were loaded.");
-                        return;
-                    }
+    /**
+     * Load the quests progression of several players, with one request per chunk of players.
+     * Blocking, must not be called from the main thread.
+     *
+     * @param players UUIDs of the players, by name.
+     * @return loaded progressions, by player name. Players whose chunk could not be read are missing.
+     */
+    public Map<String, LoadedProgression> fetchProgressions(Map<String, UUID> players, int questsConfigMode, int timestampConfigMode, int temporalityMode) {
+        final Map<String, LoadedProgression> loaded = new LinkedHashMap<>();
+        if (players.isEmpty()) return loaded;
+
+        final Connection connection = sqlManager.getConnection();
+        if (connection == null) {
+            PluginLogger.error(ChatColor.RED + "Impossible to load the quests progression of " + players.size() + " player(s) : the database is unavailable.");
+            return loaded;
+        }
 
-                    final String msg;
-                    if (achievedQuests == playerQuests.getPlayerQuests().size()) {
-                        msg = QuestsMessages.ALL_QUESTS_ACHIEVED_CONNECT.getMessage(playerName);
-                    } else {
-                        msg = QuestsMessages.QUESTS_IN_PROGRESS.getMessage(playerName);
-                    }
-                    if (msg != null) Bukkit.getPlayer(playerName).sendMessage(msg);
+        final List<String> names = new ArrayList<>(players.keySet());
+
+        try (connection) {
+            for (int from = 0; from < names.size(); from += BULK_CHUNK_SIZE) {
+                final List<String> chunk = names.subList(from, Math.min(from + BULK_CHUNK_SIZE, names.size()));
+                try {
+                    fetchChunk(connection, chunk, players, loaded, questsConfigMode, timestampConfigMode, temporalityMode);
+                } catch (SQLException e) {
+                    PluginLogger.error(ChatColor.RED + "An error occurred while loading the quests progression of " + chunk.size() + " player(s).");
+                    Debugger.addDebug(e.getMessage());
+                    e.printStackTrace();
                 }
-            } else {
-                Utils.loadNewPlayerQuests(playerName, activeQuests, timestampConfigMode, 0);
             }
-        }, 10);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        Debugger.addDebug("Bulk loaded the quests progression of " + loaded.size() + " player(s).");
+        return loaded;
     }
 
     /**
-     * Load player quests.
+     * Load the quests progression of a chunk of players. Players without stored data get new quests.
      *
-     * @param playerName       player.
-     * @param questsConfigMode configuration mode.
-     * @param quests           list of player quests.
+     * @param connection database connection.
+     * @param chunk      names of the players.
+     * @param players    UUIDs of the players, by name.
+     * @param loaded     loaded progressions, by player name.
+     * @throws SQLException SQL errors.
      */
-    private void loadPlayerQuests(String playerName, int questsConfigMode, LinkedHashMap<AbstractQuest, Progression> quests) {
-
-        Debugger.addDebug("Entering loadPlayerQuests method for player " + playerName + ".");
+    private void fetchChunk(Connection connection, List<String> chunk, Map<String, UUID> players, Map<String, LoadedProgression> loaded, int questsConfigMode, int timestampConfigMode, int temporalityMode) throws SQLException {
+        final String query = String.format(BULK_LOAD_QUERY, String.join(", ", Collections.nCopies(chunk.size(), "?")));
 
+        /* stored names may differ by case or be padded */
+        final Map<String, String> requested = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String playerName : chunk) {
+            requested.put(playerName, playerName);
+        }
 
-        try {
-            Connection connection = sqlManager.getConnection();
-            String getQuestProgressionQuery = "SELECT * FROM PROGRESSION WHERE PLAYERNAME = '" + playerName + "'";
-            PreparedStatement preparedStatement = connection.prepareStatement(getQuestProgressionQuery);
-            ResultSet resultSet = preparedStatement.executeQuery();
+        final Map<String, LoadedProgression> chunkLoaded = new LinkedHashMap<>();
 
-            int id = 1;
+        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            for (int i = 0; i < chunk.size(); i++) {
+                preparedStatement.setString(i + 1, chunk.get(i));
+            }
 
-            resultSet.next();
-            do {
-                int questIndex = resultSet.getInt("QUESTINDEX");
-                int advancement = resultSet.getInt("ADVANCEMENT");
-                boolean isAchieved = resultSet.getBoolean("ISACHIEVED");
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                String playerName = null;
+                long timestamp = 0;
+                int achievedQuests = 0;
+                int totalAchievedQuests = 0;
+                int rerolls = 0;
+
+                final List<Integer> slots = new ArrayList<>();
+                final List<String> questIds = new ArrayList<>();
+                final List<Integer> questIndexes = new ArrayList<>();
+                final List<Integer> advancements = new ArrayList<>();
+                final List<Boolean> achieved = new ArrayList<>();
+
+                boolean hasNext = resultSet.next();
+                while (playerName != null || hasNext) {
+                    final String rowName = hasNext ? requested.get(resultSet.getString("PLAYERNAME").trim()) : null;
+
+                    /* all the rows of the previous player have been read */
+                    if (playerName != null && !playerName.equals(rowName)) {
+                        chunkLoaded.put(playerName, buildProgression(players.get(playerName), playerName, timestamp, achievedQuests, totalAchievedQuests,
+                                rerolls, slots, questIds, questIndexes, advancements, achieved, questsConfigMode, timestampConfigMode, temporalityMode));
+                        playerName = null;
+                    }
 
-                Progression progression = new Progression(advancement, isAchieved);
-                AbstractQuest quest = Utils.findQuest(playerName, questsConfigMode, questIndex, id);
+                    if (!hasNext) break;
+                    if (rowName == null) {
+                        hasNext = resultSet.next();
+                        continue;
+                    }
 
-                quests.put(quest, progression);
+                    if (playerName == null) {
+                        playerName = rowName;
+                        timestamp = resultSet.getLong("PLAYERTIMESTAMP");
+                        achievedQuests = resultSet.getInt("ACHIEVEDQUESTS");
+                        totalAchievedQuests = resultSet.getInt("TOTALACHIEVEDQUESTS");
+                        rerolls = resultSet.getInt("REROLLS");
+                        slots.clear();
+                        questIds.clear();
+                        questIndexes.clear();
+                        advancements.clear();
+                        achieved.clear();
+                    }
 
-                id++;
-            } while (resultSet.next() && id <= QuestsAmount.getQuestsAmount());
+                    final int slot = resultSet.getInt("PLAYERQUESTID");
+                    if (!resultSet.wasNull()) {
+                        slots.add(slot);
+                        questIds.add(resultSet.getString("QUESTID"));
+                        questIndexes.add(resultSet.getInt("QUESTINDEX"));
+                        advancements.add(resultSet.getInt("ADVANCEMENT"));
+                        achieved.add(resultSet.getBoolean("ISACHIEVED"));
+                    }
 
-            if (resultSet.next()) {
-                PluginLogger.warn("Player " + playerName + " has more quests than the configuration.");
-                PluginLogger.warn("Only the first " + QuestsAmount.getQuestsAmount() + " quests will be loaded.");
-                PluginLogger.warn("After changing the number of quests, we recommend that you reset the progressions to avoid any problems.");
+                    hasNext = resultSet.next();
+                }
             }
+        }
 
-            resultSet.close();
-            preparedStatement.close();
-            connection.close();
-        } catch (SQLException e) {
-            PluginLogger.error(ChatColor.RED + "An error occurred while loading player " + playerName + "'s quests.");
+        for (String playerName : chunk) {
+            final LoadedProgression progression = chunkLoaded.get(playerName);
+            loaded.put(playerName, progression != null ? progression : new LoadedProgression(Utils.createNewPlayerQuests(players.get(playerName), timestampConfigMode, 0), true));
+        }
+    }
 
-            Debugger.addDebug("An error occurred while loading player " + playerName + "'s quests.");
-            Debugger.addDebug(e.getMessage());
+    /**
+     * Build the progression of a player from the stored rows, or draw new quests if they are outdated.
+     *
+     * @param uuid       UUID of the player.
+     * @param playerName player.
+     * @param slots      slots of the stored rows.
+     * @return loaded progression.
+     */
+    private LoadedProgression buildProgression(UUID uuid, String playerName, long timestamp, int achievedQuests, int totalAchievedQuests, int rerolls,
+                                               List<Integer> slots, List<String> questIds, List<Integer> questIndexes, List<Integer> advancements, List<Boolean> achieved,
+                                               int questsConfigMode, int timestampConfigMode, int temporalityMode) {
 
+        final ProgressionSnapshot snapshot = buildSnapshot(uuid, playerName, timestamp, achievedQuests, totalAchievedQuests, rerolls,
+                slots, questIds, questIndexes, advancements, achieved, timestampConfigMode, temporalityMode);
 
-            e.printStackTrace();
+        return Utils.restorePlayerQuests(uuid, snapshot, questsConfigMode, timestampConfigMode, temporalityMode);
+    }
+
+    /**
+     * Rebuild the stored progression of a player from its rows. Can be called from any thread.
+     * With deterministic draws, the slots without row are filled by drawing again the quests of the player,
+     * and the stored rows are laid over them by slot.
+     *
+     * @param uuid       UUID of the player, null if unknown.
+     * @param playerName player.
+     * @param slots      slots of the stored rows.
+     * @return stored progression.
+     */
+    public static ProgressionSnapshot buildSnapshot(UUID uuid, String playerName, long timestamp, int achievedQuests, int totalAchievedQuests, int rerolls,
+                                                    List<Integer> slots, List<String> questIds, List<Integer> questIndexes, List<Integer> advancements, List<Boolean> achieved,
+                                                    int timestampConfigMode, int temporalityMode) {
+
+        final boolean isDeterministic = DeterministicDraws.isEnabled() && uuid != null
+                && !Utils.checkTimestamp(timestampConfigMode, temporalityMode, timestamp);
+
+        final AbstractQuest[] derived = isDeterministic ? Utils.drawDerivedQuests(uuid, timestamp, rerolls) : null;
+        final int count = isDeterministic ? derived.length : questIndexes.size();
+
+        final String[] storedIds = new String[count];
+        final int[] storedIndexes = new int[count];
+        final int[] storedAdvancements = new int[count];
+        final boolean[] storedAchieved = new boolean[count];
+        final BitSet derivedSlots = new BitSet();
+
+        if (isDeterministic) {
+            for (int slot = 0; slot < count; slot++) {
+                storedIds[slot] = derived[slot].getQuestId();
+                storedIndexes[slot] = derived[slot].getQuestIndex();
+                derivedSlots.set(slot);
+            }
+        }
+
+        for (int i = 0; i < questIndexes.size(); i++) {
+            final int slot = isDeterministic ? slots.get(i) : i;
+            if (slot < 0 || slot >= count) continue;
+
+            storedIds[slot] = questIds.get(i);
+            storedIndexes[slot] = questIndexes.get(i);
+            storedAdvancements[slot] = advancements.get(i);
+            storedAchieved[slot] = achieved.get(i);
+
+            if (isDeterministic && !derived[slot].getQuestId().equals(questIds.get(i))) derivedSlots.clear(slot);
         }
 
-        Debugger.addDebug("Quests of player " + playerName + " have been loaded.");
+        return new ProgressionSnapshot(playerName, timestamp, achievedQuests, totalAchievedQuests, rerolls,
+                storedIds, storedIndexes, storedAdvancements, storedAchieved, derivedSlots);
     }
-}
\ No newline at end of file
+}
@@ -23,6 +23,8 @@ public abstract class SQLManager {
                         "     PLAYERTIMESTAMP bigint not null,  \n" +
                         "     ACHIEVEDQUESTS tinyint not null, \n" +
                         "     TOTALACHIEVEDQUESTS int not null, \n" +
+                        "     REROLLS int default 0 not null, \n" +
+                        "     PLAYERUUID char(36), \n" +
                         "     constraint PK_PLAYER primary key (PLAYERNAME)\n" +
                         "  );";
 
@@ -32,6 +34,23 @@ public abstract class SQLManager {
                 preparedStatement.close();
                 PluginLogger.info("Table 'Player' created in database.");
             }
+            else if (!columnExists(connection, "PLAYER", "REROLLS")) {
+
+                PreparedStatement preparedStatement = connection.prepareStatement("alter table PLAYER add REROLLS int default 0 not null");
+                preparedStatement.execute();
+
+                preparedStatement.close();
+                PluginLogger.info("Column 'Rerolls' added to table 'Player'.");
+            }
+            if (!columnExists(connection, "PLAYER", "PLAYERUUID")) {
+
+                /* filled in by the next save of each player */
+                PreparedStatement preparedStatement = connection.prepareStatement("alter table PLAYER add PLAYERUUID char(36)");
+                preparedStatement.execute();
+
+                preparedStatement.close();
+                PluginLogger.info("Column 'PlayerUUID' added to table 'Player'.");
+            }
             if (!tableExists(connection, "PROGRESSION")) {
 
                 String str = "create table PROGRESSION\n" +
@@ -40,6 +59,7 @@ public abstract class SQLManager {
                         "     PLAYERNAME char(32)  not null  ,\n" +
                         "     PLAYERQUESTID smallint  not null  ,\n" +
                         "     QUESTINDEX int  not null  ,\n" +
+                        "     QUESTID varchar(128)  ,\n" +
                         "     ADVANCEMENT int  not null  ,\n" +
                         "     ISACHIEVED bit  not null  ,\n" +
                         "     primary key (PRIMARYKEY) ,\n" +
@@ -52,6 +72,15 @@ public abstract class SQLManager {
                 preparedStatement.close();
                 PluginLogger.info("Table 'Progression' created in database.");
             }
+            else if (!columnExists(connection, "PROGRESSION", "QUESTID")) {
+
+                /* quests of the existing rows are still found by index */
+                PreparedStatement preparedStatement = connection.prepareStatement("alter table PROGRESSION add QUESTID varchar(128)");
+                preparedStatement.execute();
+
+                preparedStatement.close();
+                PluginLogger.info("Column 'QuestId' added to table 'Progression'.");
+            }
             connection.close();
         } catch (SQLException e) {
             e.printStackTrace();
@@ -73,6 +102,22 @@ public abstract class SQLManager {
         return resultSet.next();
     }
 
+    /**
+     * Check if a column exists in a table.
+     *
+     * @param connection connection to check.
+     * @param tableName  name of the table.
+     * @param columnName name of the column to check.
+     * @return true if column exists.
+     * @throws SQLException SQL errors.
+     */
+    private static boolean columnExists(Connection connection, String tableName, String columnName) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        ResultSet resultSet = meta.getColumns(null, null, tableName, columnName);
+
+        return resultSet.next();
+    }
+
     /**
      * Close database connection.
      */
@@ -3,23 +3,31 @@ package com.ordwen.odailyquests.quests.player.progression.storage.sql;
 import com.ordwen.odailyquests.ODailyQuests;
 import com.ordwen.odailyquests.configuration.essentials.Debugger;
 import com.ordwen.odailyquests.configuration.essentials.Logs;
-import com.ordwen.odailyquests.configuration.essentials.Modes;
-import com.ordwen.odailyquests.quests.types.AbstractQuest;
+import com.ordwen.odailyquests.quests.player.progression.storage.sql.mysql.MySQLManager;
 import com.ordwen.odailyquests.quests.player.PlayerQuests;
-import com.ordwen.odailyquests.quests.player.progression.Progression;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionSnapshot;
 import com.ordwen.odailyquests.tools.PluginLogger;
-import org.bukkit.Bukkit;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public class SaveProgressionSQL {
 
     /* instance of SQLManager */
     private final SQLManager sqlManager;
 
+    /* storage dialect, fixed for the lifetime of the manager */
+    private final boolean isMySQL;
+
     /**
      * Constructor.
      *
@@ -27,29 +35,37 @@ public class SaveProgressionSQL {
      */
     public SaveProgressionSQL(SQLManager sqlManager) {
         this.sqlManager = sqlManager;
+        this.isMySQL = sqlManager instanceof MySQLManager;
     }
 
-    /* requests */
+    /* requests, the stored UUID is kept when the UUID of the player is unknown */
     private final String MYSQL_PLAYER_QUERY =
-            "INSERT INTO PLAYER (PLAYERNAME, PLAYERTIMESTAMP, ACHIEVEDQUESTS, TOTALACHIEVEDQUESTS) " +
-                    "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "INSERT INTO PLAYER (PLAYERNAME, PLAYERTIMESTAMP, ACHIEVEDQUESTS, TOTALACHIEVEDQUESTS, REROLLS, PLAYERUUID) " +
+                    "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
                     "PLAYERTIMESTAMP = " + "VALUES(PLAYERTIMESTAMP), " +
                     "ACHIEVEDQUESTS = VALUES(ACHIEVEDQUESTS), " +
-                    "TOTALACHIEVEDQUESTS = VALUES(TOTALACHIEVEDQUESTS)";
+                    "TOTALACHIEVEDQUESTS = VALUES(TOTALACHIEVEDQUESTS), " +
+                    "REROLLS = VALUES(REROLLS), " +
+                    "PLAYERUUID = COALESCE(VALUES(PLAYERUUID), PLAYERUUID)";
 
     private final String H2_PLAYER_QUERY =
-            "MERGE INTO PLAYER (PLAYERNAME, PLAYERTIMESTAMP, ACHIEVEDQUESTS, TOTALACHIEVEDQUESTS) " +
-                    "KEY (PLAYERNAME) VALUES (?, ?, ?, ?)";
+            "MERGE INTO PLAYER (PLAYERNAME, PLAYERTIMESTAMP, ACHIEVEDQUESTS, TOTALACHIEVEDQUESTS, REROLLS, PLAYERUUID) " +
+                    "KEY (PLAYERNAME) VALUES (?, ?, ?, ?, ?, COALESCE(?, (SELECT PLAYERUUID FROM PLAYER WHERE PLAYERNAME = ?)))";
     private final String MYSQL_PROGRESS_UPDATE =
-            "INSERT INTO PROGRESSION (PLAYERNAME, PLAYERQUESTID, QUESTINDEX, ADVANCEMENT, ISACHIEVED) " +
-                    "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
+            "INSERT INTO PROGRESSION (PLAYERNAME, PLAYERQUESTID, QUESTINDEX, QUESTID, ADVANCEMENT, ISACHIEVED) " +
+                    "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE " +
                     "QUESTINDEX = VALUES(QUESTINDEX), " +
+                    "QUESTID = VALUES(QUESTID), " +
                     "ADVANCEMENT = VALUES(ADVANCEMENT), " +
                     "ISACHIEVED = VALUES(ISACHIEVED)";
 
     private final String H2_PROGRESS_UPDATE =
-            "MERGE INTO PROGRESSION (PLAYERNAME, PLAYERQUESTID, QUESTINDEX, ADVANCEMENT, ISACHIEVED) " +
-                    "KEY (PLAYERNAME, PLAYERQUESTID) VALUES (?, ?, ?, ?, ?)";
+            "MERGE INTO PROGRESSION (PLAYERNAME, PLAYERQUESTID, QUESTINDEX, QUESTID, ADVANCEMENT, ISACHIEVED) " +
+                    "KEY (PLAYERNAME, PLAYERQUESTID) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /* derived quests without progress are not stored, they are drawn again on load */
+    private final String PROGRESS_DELETE =
+            "DELETE FROM PROGRESSION WHERE PLAYERNAME = ? AND PLAYERQUESTID = ?";
 
     /**
      * Save player quests progression.
@@ -58,91 +74,155 @@ public class SaveProgressionSQL {
      * @param playerQuests player quests.
      */
     public void saveProgression(String playerName, PlayerQuests playerQuests, boolean isAsync) {
-        if (playerQuests == null) {
-            PluginLogger.warn("Impossible to save progression for player " + playerName + " because playerQuests is null.");
-            PluginLogger.warn("It can happen if the server is starting/reloading and the player's quests are not loaded yet.");
-            return;
-        }
-
-        Debugger.addDebug("Entering saveProgression method for player " + playerName);
+        final Map<String, PlayerQuests> players = new LinkedHashMap<>();
+        players.put(playerName, playerQuests);
 
-        /* init variables */
-        long timestamp = playerQuests.getTimestamp();
-        int achievedQuests = playerQuests.getAchievedQuests();
-        int totalAchievedQuests = playerQuests.getTotalAchievedQuests();
+        saveProgressions(players, isAsync);
+    }
 
-        final LinkedHashMap<AbstractQuest, Progression> quests = playerQuests.getPlayerQuests();
+    /**
+     * Save the quests progression of several players in a single transaction.
+     *
+     * @param players player quests, by player name.
+     * @param isAsync whether the database must be accessed asynchronously.
+     */
+    public void saveProgressions(Map<String, PlayerQuests> players, boolean isAsync) {
+        final Map<ProgressionSnapshot, PlayerQuests> snapshots = new LinkedHashMap<>();
+        final Map<String, UUID> uuids = new LinkedHashMap<>();
+
+        for (Map.Entry<String, PlayerQuests> entry : players.entrySet()) {
+            final String playerName = entry.getKey();
+            final PlayerQuests playerQuests = entry.getValue();
+
+            if (playerQuests == null) {
+                PluginLogger.warn("Impossible to save progression for player " + playerName + " because playerQuests is null.");
+                PluginLogger.warn("It can happen if the server is starting/reloading and the player's quests are not loaded yet.");
+                continue;
+            }
 
-        if (isAsync) {
-            Bukkit.getScheduler().runTaskAsynchronously(ODailyQuests.INSTANCE, () -> {
-                Debugger.addDebug("Saving player " + playerName + " progression asynchronously");
+            Debugger.addDebug("Entering saveProgression method for player " + playerName);
 
-                saveDatas(playerName, timestamp, achievedQuests, totalAchievedQuests, quests);
-            });
-        } else {
-            Debugger.addDebug("Saving player " + playerName + " progression");
-            saveDatas(playerName, timestamp, achievedQuests, totalAchievedQuests, quests);
+            snapshots.put(new ProgressionSnapshot(playerName, playerQuests), playerQuests);
+            uuids.put(playerName, QuestsManager.getActiveQuests().getUniqueId(playerName));
         }
+
+        ODailyQuests.INSTANCE.getProgressionWriter().write(snapshots, () -> {
+            Debugger.addDebug("Saving " + snapshots.size() + " player(s) progression" + (isAsync ? " asynchronously" : ""));
+            return saveSnapshots(snapshots.keySet(), uuids);
+        }, isAsync);
     }
 
     /**
-     * Save player quests progression.
+     * Save players quests progression, using one batch per statement in a single transaction.
+     * If the transaction fails, each player is saved again in its own transaction, so that one invalid player does not prevent the others from being saved.
+     * Only the quests changed since the last save are written, derived quests without progress are deleted.
      *
-     * @param playerName          name of the player.
-     * @param timestamp           timestamp.
-     * @param achievedQuests      achieved quests.
-     * @param totalAchievedQuests total achieved quests.
-     * @param quests              quests.
+     * @param snapshots progression of the players to save.
+     * @param uuids     UUIDs of the players, by name. Unknown UUIDs are null.
+     * @return saved snapshots. The others are left dirty by the caller.
      */
-    private void saveDatas(String playerName, long timestamp, int achievedQuests, int totalAchievedQuests, LinkedHashMap<AbstractQuest, Progression> quests) {
+    private Collection<ProgressionSnapshot> saveSnapshots(Collection<ProgressionSnapshot> snapshots, Map<String, UUID> uuids) {
         final Connection connection = sqlManager.getConnection();
 
         Debugger.addDebug("Connection to database: " + (connection != null ? "OK" : "UNAVAILABLE"));
+        if (connection == null) {
+            PluginLogger.error("Impossible to save " + snapshots.size() + " player(s) data : the database is unavailable.");
+            return Collections.emptyList();
+        }
 
-        try {
-            PreparedStatement playerStatement;
-            if (Modes.getStorageMode().equalsIgnoreCase("mysql")) playerStatement = connection.prepareStatement(MYSQL_PLAYER_QUERY);
-            else playerStatement = connection.prepareStatement(H2_PLAYER_QUERY);
-
-            playerStatement.setString(1, playerName);
-            playerStatement.setLong(2, timestamp);
-            playerStatement.setInt(3, achievedQuests);
-            playerStatement.setInt(4, totalAchievedQuests);
-
-            playerStatement.executeUpdate();
-
-            Debugger.addDebug("Player " + playerName + " data saved");
-
-            int index = 0;
-            for (AbstractQuest quest : quests.keySet()) {
-                PreparedStatement progressionStatement;
-                if (Modes.getStorageMode().equalsIgnoreCase("mysql")) progressionStatement = connection.prepareStatement(MYSQL_PROGRESS_UPDATE);
-                else progressionStatement = connection.prepareStatement(H2_PROGRESS_UPDATE);
-
-                progressionStatement.setString(1, playerName);
-                progressionStatement.setInt(2, index);
-                progressionStatement.setInt(3, quest.getQuestIndex());
-                progressionStatement.setInt(4, quests.get(quest).getProgression());
-                progressionStatement.setBoolean(5, quests.get(quest).isAchieved());
-
-                progressionStatement.executeUpdate();
-
-                Debugger.addDebug("Quest number " + index + " saved for player " + playerName);
-
-                index++;
+        final List<ProgressionSnapshot> saved = new ArrayList<>();
+
+        try (connection) {
+            try {
+                writeTransaction(connection, snapshots, uuids);
+                saved.addAll(snapshots);
+            } catch (SQLException e) {
+                PluginLogger.error("An error occurred while saving " + snapshots.size() + " player(s) data.");
+
+                Debugger.addDebug("An error occurred while saving " + snapshots.size() + " player(s) data.");
+                Debugger.addDebug(e.getMessage());
+
+                e.printStackTrace();
+
+                if (snapshots.size() > 1) {
+                    for (ProgressionSnapshot snapshot : snapshots) {
+                        try {
+                            writeTransaction(connection, Collections.singletonList(snapshot), uuids);
+                            saved.add(snapshot);
+                        } catch (SQLException playerException) {
+                            PluginLogger.error("An error occurred while saving player " + snapshot.getPlayerName() + "'s data.");
+                            Debugger.addDebug(playerException.getMessage());
+                        }
+                    }
+                }
             }
-
-            Debugger.addDebug(playerName + " quests progression saved");
-
-            if (Logs.isEnabled()) PluginLogger.info(playerName + "'s data saved.");
-            connection.close();
         } catch (SQLException e) {
-            PluginLogger.error("An error occurred while saving player " + playerName + " data.");
+            e.printStackTrace();
+        }
 
-            Debugger.addDebug("An error occurred while saving player " + playerName + " data.");
-            Debugger.addDebug(e.getMessage());
+        for (ProgressionSnapshot snapshot : saved) {
+            Debugger.addDebug(snapshot.getPlayerName() + " quests progression saved");
+            if (Logs.isEnabled()) PluginLogger.info(snapshot.getPlayerName() + "'s data saved.");
+        }
+        return saved;
+    }
 
-            e.printStackTrace();
+    /**
+     * Write players quests progression in a single transaction, rolled back on error.
+     *
+     * @param connection database connection.
+     * @param snapshots  progression of the players to save.
+     * @param uuids      UUIDs of the players, by name.
+     * @throws SQLException SQL errors.
+     */
+    private void writeTransaction(Connection connection, Collection<ProgressionSnapshot> snapshots, Map<String, UUID> uuids) throws SQLException {
+        try (PreparedStatement playerStatement = connection.prepareStatement(isMySQL ? MYSQL_PLAYER_QUERY : H2_PLAYER_QUERY);
+             PreparedStatement progressionStatement = connection.prepareStatement(isMySQL ? MYSQL_PROGRESS_UPDATE : H2_PROGRESS_UPDATE);
+             PreparedStatement deleteStatement = connection.prepareStatement(PROGRESS_DELETE)) {
+
+            connection.setAutoCommit(false);
+
+            try {
+                for (ProgressionSnapshot snapshot : snapshots) {
+                    playerStatement.setString(1, snapshot.getPlayerName());
+                    playerStatement.setLong(2, snapshot.getTimestamp());
+                    playerStatement.setInt(3, snapshot.getAchievedQuests());
+                    playerStatement.setInt(4, snapshot.getTotalAchievedQuests());
+                    playerStatement.setInt(5, snapshot.getRerolls());
+
+                    final UUID uuid = uuids.get(snapshot.getPlayerName());
+                    playerStatement.setString(6, uuid != null ? uuid.toString() : null);
+                    if (!isMySQL) playerStatement.setString(7, snapshot.getPlayerName());
+                    playerStatement.addBatch();
+
+                    for (int slot = snapshot.nextDirtySlot(0); slot >= 0; slot = snapshot.nextDirtySlot(slot + 1)) {
+                        if (snapshot.isDerived(slot) && snapshot.getProgress(slot) == 0 && !snapshot.isAchieved(slot)) {
+                            deleteStatement.setString(1, snapshot.getPlayerName());
+                            deleteStatement.setInt(2, slot);
+                            deleteStatement.addBatch();
+                            continue;
+                        }
+
+                        progressionStatement.setString(1, snapshot.getPlayerName());
+                        progressionStatement.setInt(2, slot);
+                        progressionStatement.setInt(3, snapshot.getQuestIndex(slot));
+                        progressionStatement.setString(4, snapshot.getQuestId(slot));
+                        progressionStatement.setInt(5, snapshot.getProgress(slot));
+                        progressionStatement.setBoolean(6, snapshot.isAchieved(slot));
+                        progressionStatement.addBatch();
+                    }
+                }
+
+                playerStatement.executeBatch();
+                progressionStatement.executeBatch();
+                deleteStatement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
         }
     }
 }
@@ -67,6 +67,13 @@ public class MySQLManager extends SQLManager {
         hikariConfig.setLeakDetectionThreshold(10000L);
         hikariConfig.setConnectionTimeout(10000L);
 
+        /* send batched saves as multi-row statements */
+        hikariConfig.addDataSourceProperty("rewriteBatchedStatements", "true");
+
+        /* reuse the prepared statements of each connection */
+        hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
+        hikariConfig.addDataSourceProperty("prepStmtCacheSize", "64");
+
         super.hikariDataSource = new HikariDataSource(hikariConfig);
     }
 
@@ -1,100 +1,124 @@
 package com.ordwen.odailyquests.quests.player.progression.storage.yaml;
 
 import com.ordwen.odailyquests.ODailyQuests;
-import com.ordwen.odailyquests.configuration.essentials.QuestsAmount;
-import com.ordwen.odailyquests.quests.types.AbstractQuest;
-import com.ordwen.odailyquests.quests.player.PlayerQuests;
-import com.ordwen.odailyquests.quests.player.progression.Progression;
+import com.ordwen.odailyquests.configuration.essentials.Debugger;
+import com.ordwen.odailyquests.quests.player.PlayerQuestsRegistry;
 import com.ordwen.odailyquests.quests.player.progression.Utils;
-import com.ordwen.odailyquests.enums.QuestsMessages;
+import com.ordwen.odailyquests.quests.player.progression.storage.LoadedProgression;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionSnapshot;
 import com.ordwen.odailyquests.files.ProgressionFile;
-import com.ordwen.odailyquests.tools.PluginLogger;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
 
 public class LoadProgressionYAML {
 
+    /* per-player progression files */
+    private final PlayerProgressionFiles playerFiles;
+
+    /**
+     * Constructor.
+     *
+     * @param playerFiles per-player progression files.
+     */
+    public LoadProgressionYAML(PlayerProgressionFiles playerFiles) {
+        this.playerFiles = playerFiles;
+    }
+
     /**
      * Load or renewed quotidian quests of player.
      *
+     * @param uuid         UUID of the player.
      * @param playerName   player.
      * @param activeQuests list of active players.
      */
-    public void loadPlayerQuests(String playerName, HashMap<String, PlayerQuests> activeQuests, int questsConfigMode, int timestampConfigMode, int temporalityMode) {
+    public void loadPlayerQuests(UUID uuid, String playerName, PlayerQuestsRegistry activeQuests, int questsConfigMode, int timestampConfigMode, int temporalityMode) {
 
         Bukkit.getScheduler().runTaskAsynchronously(ODailyQuests.INSTANCE, () -> {
-            final FileConfiguration progressionFile = ProgressionFile.getProgressionFileConfiguration();
+            final LoadedProgression loaded = fetchPlayerQuests(uuid, playerName, questsConfigMode, timestampConfigMode, temporalityMode);
+            Bukkit.getScheduler().runTask(ODailyQuests.INSTANCE, () -> Utils.activatePlayerQuests(playerName, activeQuests, loaded));
+        });
+    }
+
+    /**
+     * Load the quests of a player from its progression file, or draw new quests if needed.
+     * Players that are only present in the legacy progression file are migrated on their next save.
+     * Can be called from any thread.
+     *
+     * @param uuid       UUID of the player.
+     * @param playerName player.
+     * @return loaded progression.
+     */
+    public LoadedProgression fetchPlayerQuests(UUID uuid, String playerName, int questsConfigMode, int timestampConfigMode, int temporalityMode) {
+        final FileConfiguration playerFile = playerFiles.read(uuid);
+        if (playerFile != null) {
+            return readPlayerQuests(playerFile, uuid, playerName, questsConfigMode, timestampConfigMode, temporalityMode, false);
+        }
+
+        final FileConfiguration legacyFile = ProgressionFile.getProgressionFileConfiguration();
+        if (legacyFile != null) {
+
+            /* the legacy file configuration is shared with the converters */
+            synchronized (legacyFile) {
+                final ConfigurationSection legacySection = legacyFile.getConfigurationSection(playerName);
+                if (legacySection != null) {
+                    Debugger.addDebug("Migrating progression of player " + playerName + " from the legacy progression file.");
+                    return readPlayerQuests(legacySection, uuid, playerName, questsConfigMode, timestampConfigMode, temporalityMode, true);
+                }
+            }
+        }
 
-            /* init variables */
-            long timestamp;
-            int achievedQuests;
-            int totalAchievedQuests;
-            PlayerQuests playerQuests;
+        return new LoadedProgression(Utils.createNewPlayerQuests(uuid, timestampConfigMode, 0), true);
+    }
 
-            final LinkedHashMap<AbstractQuest, Progression> quests = new LinkedHashMap<>();
+    /**
+     * Read the quests of a player from a progression section.
+     *
+     * @param section    section holding the player data.
+     * @param uuid       player UUID.
+     * @param playerName player.
+     * @param isMigrated true if the data comes from the legacy file and must be saved in the player file.
+     * @return loaded progression.
+     */
+    private LoadedProgression readPlayerQuests(ConfigurationSection section, UUID uuid, String playerName, int questsConfigMode, int timestampConfigMode, int temporalityMode, boolean isMigrated) {
+        final LoadedProgression loaded = Utils.restorePlayerQuests(uuid, readSnapshot(section, playerName), questsConfigMode, timestampConfigMode, temporalityMode);
 
-            /* check if player has data */
-            if (progressionFile.getString(playerName) != null) {
+        /* migrated data stays dirty so that it is written in the player file */
+        if (isMigrated) loaded.getPlayerQuests().markDirty();
 
-                timestamp = progressionFile.getConfigurationSection(playerName).getLong(".timestamp");
-                achievedQuests = progressionFile.getConfigurationSection(playerName).getInt(".achievedQuests");
-                totalAchievedQuests = progressionFile.getConfigurationSection(playerName).getInt(".totalAchievedQuests");
+        return loaded;
+    }
 
-                /* renew quests */
-                if (Utils.checkTimestamp(timestampConfigMode, temporalityMode, timestamp)) {
-                    Utils.loadNewPlayerQuests(playerName, activeQuests, timestampConfigMode, totalAchievedQuests);
-                }
-                /* load non-achieved quests */
-                else {
-                    int i = 1;
-
-                    for (String string : progressionFile.getConfigurationSection(playerName + ".quests").getKeys(false)) {
-                        if (i <= QuestsAmount.getQuestsAmount()) {
-                            int questIndex = progressionFile.getConfigurationSection(playerName + ".quests." + string).getInt(".index");
-                            int advancement = progressionFile.getConfigurationSection(playerName + ".quests." + string).getInt(".progression");
-                            boolean isAchieved = progressionFile.getConfigurationSection(playerName + ".quests." + string).getBoolean(".isAchieved");
-
-                            Progression progression = new Progression(advancement, isAchieved);
-                            AbstractQuest quest = Utils.findQuest(playerName, questsConfigMode, questIndex, Integer.parseInt(string));
-
-                            quests.put(quest, progression);
-                            i++;
-                        }
-                        else {
-                            PluginLogger.warn("Player " + playerName + " has more quests than the configuration.");
-                            PluginLogger.warn("Only the first " + QuestsAmount.getQuestsAmount() + " quests will be loaded.");
-                            PluginLogger.warn("After changing the number of quests, we recommend that you reset the progressions to avoid any problems.");
-                            break;
-                        }
-                    }
-
-                    playerQuests = new PlayerQuests(timestamp, quests);
-                    playerQuests.setAchievedQuests(achievedQuests);
-                    playerQuests.setTotalAchievedQuests(totalAchievedQuests);
-
-                    if (Bukkit.getPlayer(playerName) != null) {
-                        activeQuests.put(playerName, playerQuests);
-                        PluginLogger.info(playerName + "'s quests have been loaded.");
-                    } else {
-                        PluginLogger.warn("It looks like " + playerName + " has disconnected before his quests were loaded.");
-                        return;
-                    }
-
-                    final String msg;
-                    if (achievedQuests == playerQuests.getPlayerQuests().size()) {
-                        msg = QuestsMessages.ALL_QUESTS_ACHIEVED_CONNECT.getMessage(playerName);
-                    } else {
-                        msg = QuestsMessages.QUESTS_IN_PROGRESS.getMessage(playerName);
-                    }
-                    if (msg != null) Bukkit.getPlayer(playerName).sendMessage(msg);
-                }
-            } else {
-                Utils.loadNewPlayerQuests(playerName, activeQuests, timestampConfigMode, 0);
-            }
-        });
+    /**
+     * Read the stored values of a player from a progression section.
+     *
+     * @param section    section holding the player data.
+     * @param playerName player.
+     * @return stored progression.
+     */
+    public static ProgressionSnapshot readSnapshot(ConfigurationSection section, String playerName) {
+        final ConfigurationSection questsSection = section.getConfigurationSection("quests");
+        final List<String> keys = questsSection != null ? new ArrayList<>(questsSection.getKeys(false)) : new ArrayList<>();
+
+        final String[] questIds = new String[keys.size()];
+        final int[] questIndexes = new int[keys.size()];
+        final int[] progress = new int[keys.size()];
+        final boolean[] achieved = new boolean[keys.size()];
+
+        for (int i = 0; i < keys.size(); i++) {
+            final String key = keys.get(i);
+            questIds[i] = questsSection.getString(key + ".id");
+            questIndexes[i] = questsSection.getInt(key + ".index");
+            progress[i] = questsSection.getInt(key + ".progression");
+            achieved[i] = questsSection.getBoolean(key + ".isAchieved");
+        }
+
+        return new ProgressionSnapshot(playerName, section.getLong("timestamp"), section.getInt("achievedQuests"),
+                section.getInt("totalAchievedQuests"), section.getInt("rerolls"), questIds, questIndexes, progress, achieved, new BitSet());
     }
 }
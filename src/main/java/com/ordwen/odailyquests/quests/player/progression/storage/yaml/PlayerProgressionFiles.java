@@ -0,0 +1,136 @@
+package com.ordwen.odailyquests.quests.player.progression.storage.yaml;
+
+import com.ordwen.odailyquests.tools.PluginLogger;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Storage of the progression of each player in its own YAML file.
+ * Files are named by player UUID and sharded into subdirectories using the first two characters of the UUID.
+ */
+public class PlayerProgressionFiles {
+
+    /* root folder of the player files */
+    private final File folder;
+
+    /**
+     * Constructor.
+     *
+     * @param dataFolder data folder of the plugin.
+     */
+    public PlayerProgressionFiles(File dataFolder) {
+        this.folder = new File(dataFolder, "progression");
+    }
+
+    /**
+     * Get the file of a player.
+     *
+     * @param uuid UUID of the player.
+     * @return player file, that may not exist.
+     */
+    public File getFile(UUID uuid) {
+        final String name = uuid.toString();
+        return new File(new File(folder, name.substring(0, 2)), name + ".yml");
+    }
+
+    /**
+     * Read the file of a player.
+     *
+     * @param uuid UUID of the player.
+     * @return file content, or null if the player has no file or if it can't be read.
+     */
+    public YamlConfiguration read(UUID uuid) {
+        final File file = getFile(uuid);
+        if (!file.exists()) return null;
+
+        return read(file);
+    }
+
+    /**
+     * Read a player file.
+     *
+     * @param file file to read.
+     * @return file content, or null if it can't be read.
+     */
+    public YamlConfiguration read(File file) {
+        final YamlConfiguration configuration = new YamlConfiguration();
+        try {
+            configuration.load(file);
+            return configuration;
+        } catch (IOException | InvalidConfigurationException e) {
+            PluginLogger.error("An error occurred on the load of the progression file " + file.getName() + ".");
+            PluginLogger.error("If the problem persists, contact the developer.");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Write the file of a player. The content is written into a temporary file first,
+     * then moved over the player file so that a crash never leaves a truncated file.
+     *
+     * @param uuid          UUID of the player.
+     * @param configuration content to write.
+     * @return true if the file has been written.
+     */
+    public boolean write(UUID uuid, YamlConfiguration configuration) {
+        final Path target = getFile(uuid).toPath();
+
+        try {
+            Files.createDirectories(target.getParent());
+
+            final Path temp = Files.createTempFile(target.getParent(), uuid.toString(), ".tmp");
+            try {
+                Files.write(temp, configuration.saveToString().getBytes(StandardCharsets.UTF_8));
+                move(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            return true;
+        } catch (IOException e) {
+            PluginLogger.error("An error happened on the save of the progression file of " + uuid + ".");
+            PluginLogger.error("If the problem persists, contact the developer.");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Get all existing player files.
+     *
+     * @return player files.
+     */
+    public List<File> listFiles() {
+        final List<File> files = new ArrayList<>();
+
+        final File[] shards = folder.listFiles(File::isDirectory);
+        if (shards == null) return files;
+
+        for (File shard : shards) {
+            final File[] playerFiles = shard.listFiles((dir, name) -> name.endsWith(".yml"));
+            if (playerFiles != null) files.addAll(List.of(playerFiles));
+        }
+
+        return files;
+    }
+}
@@ -3,63 +3,82 @@ package com.ordwen.odailyquests.quests.player.progression.storage.yaml;
 import com.ordwen.odailyquests.ODailyQuests;
 import com.ordwen.odailyquests.configuration.essentials.Logs;
 import com.ordwen.odailyquests.files.ProgressionFile;
-import com.ordwen.odailyquests.quests.types.AbstractQuest;
 import com.ordwen.odailyquests.quests.player.PlayerQuests;
-import com.ordwen.odailyquests.quests.player.progression.Progression;
+import com.ordwen.odailyquests.quests.player.progression.storage.ProgressionSnapshot;
 import com.ordwen.odailyquests.tools.PluginLogger;
-import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
-import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
 
-import java.io.IOException;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 
 public class SaveProgressionYAML {
 
+    /* per-player progression files */
+    private final PlayerProgressionFiles playerFiles;
+
+    /**
+     * Constructor.
+     *
+     * @param playerFiles per-player progression files.
+     */
+    public SaveProgressionYAML(PlayerProgressionFiles playerFiles) {
+        this.playerFiles = playerFiles;
+    }
+
     /**
-     * Save player progression in YAML file.
+     * Save player progression in its YAML file.
      *
+     * @param uuid         player UUID.
      * @param playerName   player name.
      * @param playerQuests player quests.
      */
-    public void saveProgression(String playerName, PlayerQuests playerQuests, boolean isAsync) {
+    public void saveProgression(UUID uuid, String playerName, PlayerQuests playerQuests, boolean isAsync) {
+        if (uuid == null) {
+            PluginLogger.warn("Impossible to save progression for player " + playerName + " because their UUID is unknown.");
+            return;
+        }
+
+        final ProgressionSnapshot snapshot = new ProgressionSnapshot(playerName, playerQuests);
+        final Map<ProgressionSnapshot, PlayerQuests> snapshots = new LinkedHashMap<>();
+        snapshots.put(snapshot, playerQuests);
 
-        if (isAsync) {
-            Bukkit.getScheduler().runTaskAsynchronously(ODailyQuests.INSTANCE, () -> updateFile(playerName, playerQuests));
-        } else updateFile(playerName, playerQuests);
+        ODailyQuests.INSTANCE.getProgressionWriter().write(snapshots,
+                () -> updateFile(uuid, snapshot) ? snapshots.keySet() : Collections.emptyList(), isAsync);
     }
 
-    private void updateFile(String playerName, PlayerQuests playerQuests) {
-        final FileConfiguration progressionFile = ProgressionFile.getProgressionFileConfiguration();
+    /**
+     * Write a progression snapshot into the player file.
+     *
+     * @param uuid     player UUID.
+     * @param snapshot progression to write.
+     * @return true if the file has been written.
+     */
+    private boolean updateFile(UUID uuid, ProgressionSnapshot snapshot) {
+        final String playerName = snapshot.getPlayerName();
+        final YamlConfiguration playerFile = new YamlConfiguration();
 
-        long timestamp = playerQuests.getTimestamp();
-        int achievedQuests = playerQuests.getAchievedQuests();
-        int totalAchievedQuests = playerQuests.getTotalAchievedQuests();
+        playerFile.set("name", playerName);
+        playerFile.set("timestamp", snapshot.getTimestamp());
+        playerFile.set("achievedQuests", snapshot.getAchievedQuests());
+        playerFile.set("totalAchievedQuests", snapshot.getTotalAchievedQuests());
+        playerFile.set("rerolls", snapshot.getRerolls());
 
-        final LinkedHashMap<AbstractQuest, Progression> quests = playerQuests.getPlayerQuests();
+        for (int slot = 0; slot < snapshot.getQuestsCount(); slot++) {
+            final int index = slot + 1;
+            playerFile.set("quests." + index + ".id", snapshot.getQuestId(slot));
+            playerFile.set("quests." + index + ".index", snapshot.getQuestIndex(slot));
+            playerFile.set("quests." + index + ".progression", snapshot.getProgress(slot));
+            playerFile.set("quests." + index + ".isAchieved", snapshot.isAchieved(slot));
+        }
 
-        progressionFile.set(playerName + ".timestamp", timestamp);
-        progressionFile.set(playerName + ".achievedQuests", achievedQuests);
-        progressionFile.set(playerName + ".totalAchievedQuests", totalAchievedQuests);
+        if (!playerFiles.write(uuid, playerFile)) return false;
 
-        int index = 1;
-        for (AbstractQuest quest : quests.keySet()) {
-            progressionFile.set(playerName + ".quests." + index + ".index", quest.getQuestIndex());
-            progressionFile.set(playerName + ".quests." + index + ".progression", quests.get(quest).getProgression());
-            progressionFile.set(playerName + ".quests." + index + ".isAchieved", quests.get(quest).isAchieved());
-            index++;
-        }
+        /* the player file now takes precedence, the legacy data of a migrated player is dropped */
+        ProgressionFile.removePlayer(playerName);
 
         if (Logs.isEnabled()) PluginLogger.info(playerName + "'s data saved.");
-
-        try {
-            progressionFile.save(ProgressionFile.getProgressionFile());
-        } catch (IOException e) {
-            PluginLogger.error("An error happened on the save of the progression file.");
-            PluginLogger.error("If the problem persists, contact the developer.");
-            e.printStackTrace();
-        }
+        return true;
     }
 }
@@ -1,13 +1,25 @@
 package com.ordwen.odailyquests.quests.player.progression.storage.yaml;
 
+import com.ordwen.odailyquests.ODailyQuests;
+
 public class YamlManager {
 
+    private final PlayerProgressionFiles playerFiles;
     private final LoadProgressionYAML loadProgressionYAML;
     private final SaveProgressionYAML saveProgressionYAML;
 
-    public YamlManager() {
-        this.loadProgressionYAML = new LoadProgressionYAML();
-        this.saveProgressionYAML = new SaveProgressionYAML();
+    public YamlManager(ODailyQuests oDailyQuests) {
+        this.playerFiles = new PlayerProgressionFiles(oDailyQuests.getDataFolder());
+        this.loadProgressionYAML = new LoadProgressionYAML(playerFiles);
+        this.saveProgressionYAML = new SaveProgressionYAML(playerFiles);
+    }
+
+    /**
+     * Get PlayerProgressionFiles instance.
+     * @return PlayerProgressionFiles instance.
+     */
+    public PlayerProgressionFiles getPlayerFiles() {
+        return playerFiles;
     }
 
     /**
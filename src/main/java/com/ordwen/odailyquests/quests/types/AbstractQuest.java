@@ -2,13 +2,16 @@ package com.ordwen.odailyquests.quests.types;
 
 import com.ordwen.odailyquests.enums.QuestType;
 import com.ordwen.odailyquests.rewards.Reward;
+import org.bukkit.World;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.List;
+import java.util.Set;
 
 public abstract class AbstractQuest {
 
     final int questIndex;
+    final String questKey;
     final String questName;
     final String categoryName;
     final List<String> questDesc;
@@ -19,18 +22,28 @@ public abstract class AbstractQuest {
     final Reward reward;
     final List<String> requiredWorlds;
     final boolean isUsingPlaceholders;
+    final double weight;
+
+    /* required worlds as a set, null if the quest can be done in any world */
+    final Set<String> requiredWorldSet;
+
+    /* stable identity of the quest, independent of its position in the file */
+    final String questId;
 
     /**
      * Quest constructor.
      *
+     * @param questKey       key of the quest in its file.
      * @param questName      name of the quest.
      * @param questDesc      description of the quest.
      * @param questType      type of the quest.
      * @param amountRequired required amount of the item.
      * @param reward         reward of the quest.
+     * @param weight         relative chance of the quest to be drawn.
      */
-    public AbstractQuest(int questIndex, String questName, String categoryName, List<String> questDesc, QuestType questType, ItemStack menuItem, ItemStack achievedItem, int amountRequired, Reward reward, List<String> requiredWorlds, boolean isUsingPlaceholders) {
+    public AbstractQuest(int questIndex, String questKey, String questName, String categoryName, List<String> questDesc, QuestType questType, ItemStack menuItem, ItemStack achievedItem, int amountRequired, Reward reward, List<String> requiredWorlds, boolean isUsingPlaceholders, double weight) {
         this.questIndex = questIndex;
+        this.questKey = questKey;
         this.questName = questName;
         this.categoryName = categoryName;
         this.questDesc = questDesc;
@@ -41,6 +54,9 @@ public abstract class AbstractQuest {
         this.reward = reward;
         this.requiredWorlds = requiredWorlds;
         this.isUsingPlaceholders = isUsingPlaceholders;
+        this.weight = weight;
+        this.requiredWorldSet = (requiredWorlds == null || requiredWorlds.isEmpty()) ? null : Set.copyOf(requiredWorlds);
+        this.questId = categoryName + ":" + questKey;
     }
 
     /**
@@ -50,6 +66,7 @@ public abstract class AbstractQuest {
      */
     public AbstractQuest(GlobalQuest globalQuest) {
         this.questIndex = globalQuest.questIndex;
+        this.questKey = globalQuest.questKey;
         this.questName = globalQuest.questName;
         this.categoryName = globalQuest.categoryName;
         this.questDesc = globalQuest.questDesc;
@@ -60,6 +77,9 @@ public abstract class AbstractQuest {
         this.reward = globalQuest.reward;
         this.requiredWorlds = globalQuest.requiredWorlds;
         this.isUsingPlaceholders = globalQuest.isUsingPlaceholders;
+        this.weight = globalQuest.weight;
+        this.requiredWorldSet = globalQuest.requiredWorldSet;
+        this.questId = globalQuest.questId;
     }
 
     /**
@@ -71,6 +91,34 @@ public abstract class AbstractQuest {
         return this.questIndex;
     }
 
+    /**
+     * Get the key of the quest in its file.
+     *
+     * @return quest key.
+     */
+    public String getQuestKey() {
+        return this.questKey;
+    }
+
+    /**
+     * Get the stable identity of the quest, made of its category and its key.
+     * It does not change when other quests are added, removed or reordered.
+     *
+     * @return quest id.
+     */
+    public String getQuestId() {
+        return this.questId;
+    }
+
+    /**
+     * Get the relative chance of the quest to be drawn.
+     *
+     * @return quest weight.
+     */
+    public double getWeight() {
+        return this.weight;
+    }
+
     /**
      * Get the type of quest.
      *
@@ -152,6 +200,16 @@ public abstract class AbstractQuest {
         return this.requiredWorlds;
     }
 
+    /**
+     * Check if the quest can progress in the given world.
+     *
+     * @param world world to check.
+     * @return true if the quest has no required world or if the world is one of them.
+     */
+    public boolean isRequiredWorld(World world) {
+        return this.requiredWorldSet == null || this.requiredWorldSet.contains(world.getName());
+    }
+
     /**
      * Get whether the quest is using placeholders.
      *
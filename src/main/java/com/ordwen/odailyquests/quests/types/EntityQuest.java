@@ -3,7 +3,9 @@ package com.ordwen.odailyquests.quests.types;
 import org.bukkit.DyeColor;
 import org.bukkit.entity.EntityType;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 public class EntityQuest extends AbstractQuest {
 
@@ -11,11 +13,18 @@ public class EntityQuest extends AbstractQuest {
     final DyeColor dyeColor;
     final List<String> entityNames;
 
+    /* compiled on load, null when the quest does not filter on it */
+    private final Set<EntityType> entityTypeSet;
+    private final Set<String> entityNameSet;
+
     public EntityQuest(GlobalQuest globalQuest, List<EntityType> entityTypes, DyeColor dyeColor) {
         super(globalQuest);
         this.entityTypes = entityTypes;
         this.dyeColor = dyeColor;
         entityNames = null;
+
+        this.entityTypeSet = compileTypes(entityTypes);
+        this.entityNameSet = null;
     }
 
     public EntityQuest(GlobalQuest globalQuest, List<String> entityNames) {
@@ -24,6 +33,32 @@ public class EntityQuest extends AbstractQuest {
 
         this.entityTypes = null;
         this.dyeColor = null;
+
+        this.entityTypeSet = null;
+        this.entityNameSet = (entityNames == null || entityNames.isEmpty()) ? null : Set.copyOf(entityNames);
+    }
+
+    private static Set<EntityType> compileTypes(List<EntityType> entityTypes) {
+        if (entityTypes == null) return null;
+
+        final Set<EntityType> types = EnumSet.noneOf(EntityType.class);
+        for (EntityType type : entityTypes) {
+            if (type != null) types.add(type);
+        }
+        return types;
+    }
+
+    /**
+     * Check if the given entity is required by the quest.
+     * @param entityType type of the entity, can be null for custom mobs.
+     * @param entityName name of the custom mob, can be null.
+     * @param dyeColor color of the sheep, can be null.
+     * @return true if the entity matches.
+     */
+    public boolean matches(EntityType entityType, String entityName, DyeColor dyeColor) {
+        if (entityTypeSet != null && (entityType == null || !entityTypeSet.contains(entityType))) return false;
+        if (entityNameSet != null) return entityName != null && entityNameSet.contains(entityName);
+        return this.dyeColor == null || this.dyeColor == dyeColor;
     }
 
     /**
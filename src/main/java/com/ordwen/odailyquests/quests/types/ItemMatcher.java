@@ -0,0 +1,101 @@
+package com.ordwen.odailyquests.quests.types;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable matcher built from the required items of a quest.
+ * Plain materials are matched without reading any ItemMeta.
+ */
+public final class ItemMatcher {
+
+    /* required items without meta, matched by material only */
+    private final Set<Material> plainMaterials;
+
+    /* required items with a custom model data, by material */
+    private final Map<Material, int[]> customModelData;
+
+    /* other required items, compared with ItemStack#isSimilar */
+    private final List<ItemStack> similarItems;
+
+    private ItemMatcher(Set<Material> plainMaterials, Map<Material, int[]> customModelData, List<ItemStack> similarItems) {
+        this.plainMaterials = plainMaterials;
+        this.customModelData = customModelData;
+        this.similarItems = similarItems;
+    }
+
+    /**
+     * Build a matcher from the required items of a quest.
+     *
+     * @param requiredItems required items.
+     * @return matcher.
+     */
+    public static ItemMatcher compile(List<ItemStack> requiredItems) {
+        final Set<Material> plainMaterials = EnumSet.noneOf(Material.class);
+        final Map<Material, int[]> customModelData = new EnumMap<>(Material.class);
+        final List<ItemStack> similarItems = new ArrayList<>();
+
+        for (ItemStack item : requiredItems) {
+            if (!item.hasItemMeta()) {
+                plainMaterials.add(item.getType());
+                continue;
+            }
+
+            final ItemMeta meta = item.getItemMeta();
+            if (meta.hasCustomModelData()) {
+                final int[] current = customModelData.getOrDefault(item.getType(), new int[0]);
+                final int[] updated = Arrays.copyOf(current, current.length + 1);
+                updated[current.length] = meta.getCustomModelData();
+                customModelData.put(item.getType(), updated);
+            } else {
+                similarItems.add(item.clone());
+            }
+        }
+
+        return new ItemMatcher(plainMaterials, customModelData, Collections.unmodifiableList(similarItems));
+    }
+
+    /**
+     * Check if the given item is one of the required items.
+     *
+     * @param itemStack item to check.
+     * @return true if the item matches.
+     */
+    public boolean matches(ItemStack itemStack) {
+        if (itemStack == null) return false;
+
+        final Material type = itemStack.getType();
+
+        // items with meta can only match required items that also have meta
+        if (!itemStack.hasItemMeta()) {
+            return plainMaterials.contains(type);
+        }
+
+        final int[] models = customModelData.get(type);
+        if (models != null) {
+            final ItemMeta meta = itemStack.getItemMeta();
+            if (meta != null && meta.hasCustomModelData()) {
+                final int model = meta.getCustomModelData();
+                for (int required : models) {
+                    if (required == model) return true;
+                }
+            }
+        }
+
+        for (ItemStack item : similarItems) {
+            if (item.getType() == type && item.isSimilar(itemStack)) return true;
+        }
+
+        return false;
+    }
+}
@@ -7,6 +7,7 @@ import java.util.List;
 public class ItemQuest extends AbstractQuest {
 
     final List<ItemStack> requiredItems;
+    final ItemMatcher itemMatcher;
 
     /**
      * Quest constructor.
@@ -17,6 +18,7 @@ public class ItemQuest extends AbstractQuest {
     public ItemQuest(GlobalQuest globalQuest, List<ItemStack> requiredItems) {
         super(globalQuest);
         this.requiredItems = requiredItems;
+        this.itemMatcher = requiredItems == null ? null : ItemMatcher.compile(requiredItems);
     }
 
     /**
@@ -27,4 +29,13 @@ public class ItemQuest extends AbstractQuest {
     public List<ItemStack> getRequiredItems() {
         return this.requiredItems;
     }
+
+    /**
+     * Get the matcher built from the required items.
+     *
+     * @return item matcher, or null if the quest has no required item.
+     */
+    public ItemMatcher getItemMatcher() {
+        return this.itemMatcher;
+    }
 }
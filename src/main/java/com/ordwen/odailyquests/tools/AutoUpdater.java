@@ -111,6 +111,25 @@ public class AutoUpdater {
                 AddDefault.addDefaultConfigItem("use_oraxen", false, configFile, file);
             }
 
+            if (!configFile.contains("legacy_progress_events")) {
+                AddDefault.addDefaultConfigItem("legacy_progress_events", false, configFile, file);
+            }
+
+            if (!configFile.contains("autosave")) {
+                AddDefault.addDefaultConfigItem("autosave.enabled", true, configFile, file);
+                AddDefault.addDefaultConfigItem("autosave.interval", 300, configFile, file);
+                AddDefault.addDefaultConfigItem("autosave.batch_size", 20, configFile, file);
+            }
+
+            if (!configFile.contains("deterministic_draws")) {
+                AddDefault.addDefaultConfigItem("deterministic_draws", false, configFile, file);
+            }
+
+            if (!configFile.contains("renewal")) {
+                AddDefault.addDefaultConfigItem("renewal.timezone", "", configFile, file);
+                AddDefault.addDefaultConfigItem("renewal.slice_budget", 5, configFile, file);
+            }
+
             // PLAYER INTERFACE
 
             if (!playerInterfaceFile.contains("player_interface.disable_status")) {
@@ -0,0 +1,215 @@
+package com.ordwen.odailyquests.tools;
+
+import com.ordwen.odailyquests.ODailyQuests;
+import com.ordwen.odailyquests.configuration.essentials.Debugger;
+import com.ordwen.odailyquests.configuration.essentials.Modes;
+import com.ordwen.odailyquests.configuration.essentials.Renewal;
+import com.ordwen.odailyquests.configuration.essentials.Temporality;
+import com.ordwen.odailyquests.enums.QuestsMessages;
+import com.ordwen.odailyquests.quests.player.PlayerQuests;
+import com.ordwen.odailyquests.quests.player.QuestsManager;
+import com.ordwen.odailyquests.quests.player.progression.Utils;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renews the quests of the connected players at each period boundary, when the timestamp mode is 1.
+ * Quests are drawn in parallel off the main thread, then given to the players on the main thread,
+ * a few players per tick so that the renewal never exceeds the configured budget of a tick.
+ */
+public class RenewalScheduler {
+
+    /* delay between two checks of the period boundary, in ticks */
+    private static final long CHECK_INTERVAL = 20L;
+
+    private final ODailyQuests plugin;
+
+    /* players waiting for their drawn quests, and the drawn quests */
+    private final Deque<String> pending = new ArrayDeque<>();
+    private final Map<String, PlayerQuests> drawn = new ConcurrentHashMap<>();
+
+    private BukkitTask checkTask;
+    private BukkitTask sliceTask;
+
+    /* time of the next renewal, in milliseconds */
+    private long nextRenewal;
+
+    /* period of the renewal in progress */
+    private long renewalPeriod;
+
+    public RenewalScheduler(ODailyQuests plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Schedule the next renewal according to the configuration. A renewal in progress is not interrupted.
+     */
+    public void start() {
+        if (checkTask != null) {
+            checkTask.cancel();
+            checkTask = null;
+        }
+        if (Modes.getTimestampMode() != 1) return;
+
+        nextRenewal = getNextRenewal(System.currentTimeMillis());
+        Debugger.addDebug("Next quests renewal at " + Instant.ofEpochMilli(nextRenewal).atZone(Renewal.getZoneId()) + ".");
+
+        /* the clock is checked instead of waiting a fixed amount of ticks, that would drift with the server lag */
+        checkTask = Bukkit.getScheduler().runTaskTimer(plugin, this::checkRenewal, CHECK_INTERVAL, CHECK_INTERVAL);
+    }
+
+    /**
+     * Stop the scheduler. Players still pending keep their current quests.
+     */
+    public void stop() {
+        if (checkTask != null) {
+            checkTask.cancel();
+            checkTask = null;
+        }
+        if (sliceTask != null) {
+            sliceTask.cancel();
+            sliceTask = null;
+        }
+        pending.clear();
+        drawn.clear();
+    }
+
+    private void checkRenewal() {
+        final long now = System.currentTimeMillis();
+        if (now < nextRenewal) return;
+
+        nextRenewal = getNextRenewal(now);
+        renewQuests(getPeriod(now));
+    }
+
+    /**
+     * Renew the quests of all connected players whose quests are from a previous period.
+     *
+     * @param period period of the renewal.
+     */
+    private void renewQuests(long period) {
+        if (!pending.isEmpty()) {
+            PluginLogger.warn("The previous quests renewal is not over, the new one is skipped.");
+            return;
+        }
+
+        PluginLogger.fine("A new period has started. The player quests are being renewed.");
+
+        final Map<String, UUID> players = new LinkedHashMap<>();
+
+        for (Player player : Bukkit.getServer().getOnlinePlayers()) {
+            final PlayerQuests playerQuests = QuestsManager.getActiveQuests().get(player);
+
+            /* players whose quests are not loaded yet are renewed when their quests are activated */
+            if (playerQuests == null || getPeriod(playerQuests.getTimestamp()) >= period) continue;
+
+            players.put(player.getName(), player.getUniqueId());
+        }
+
+        if (players.isEmpty()) return;
+
+        renewalPeriod = period;
+        pending.addAll(players.keySet());
+        Debugger.addDebug("Quests renewal: " + pending.size() + " player(s) to renew.");
+
+        final int timestampMode = Modes.getTimestampMode();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            players.entrySet().parallelStream().forEach(entry ->
+                    drawn.put(entry.getKey(), Utils.createNewPlayerQuests(entry.getValue(), timestampMode, 0)));
+
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (pending.isEmpty()) return;
+                sliceTask = Bukkit.getScheduler().runTaskTimer(plugin, this::applySlice, 0L, 1L);
+            });
+        });
+    }
+
+    /**
+     * Give their drawn quests to pending players, until the budget of the tick is spent.
+     * At least one player is renewed per tick.
+     */
+    private void applySlice() {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Renewal.getSliceBudget());
+
+        do {
+            final String playerName = pending.poll();
+            final PlayerQuests playerQuests = drawn.remove(playerName);
+            if (playerQuests != null) applyRenewal(playerName, playerQuests);
+        } while (!pending.isEmpty() && System.nanoTime() < deadline);
+
+        if (pending.isEmpty()) {
+            drawn.clear();
+            if (sliceTask != null) {
+                sliceTask.cancel();
+                sliceTask = null;
+            }
+            Debugger.addDebug("Quests renewal is over.");
+        }
+    }
+
+    private void applyRenewal(String playerName, PlayerQuests playerQuests) {
+        final Player player = Bukkit.getPlayerExact(playerName);
+        if (player == null) {
+            Debugger.addDebug(playerName + " disconnected before the end of the quests renewal.");
+            return;
+        }
+
+        /* the player may have reconnected since the draw, then their load has renewed the quests if needed */
+        final PlayerQuests current = QuestsManager.getActiveQuests().get(player);
+        if (current == null || getPeriod(current.getTimestamp()) >= renewalPeriod) return;
+
+        /* the total is read now, so that the quests achieved during the draw are kept */
+        playerQuests.setTotalAchievedQuests(current.getTotalAchievedQuests());
+
+        final String msg = QuestsMessages.NEW_DAY.toString();
+        if (msg != null) player.sendMessage(msg);
+
+        Utils.loadNewPlayerQuests(playerName, QuestsManager.getActiveQuests(), playerQuests);
+    }
+
+    /**
+     * Get the number of the period containing the given timestamp, according to the temporality mode and the renewal timezone.
+     * Weeks start on Monday, months on their first day.
+     *
+     * @param timestamp timestamp, in milliseconds.
+     * @return period number, greater for later periods.
+     */
+    public static long getPeriod(long timestamp) {
+        final LocalDate date = Instant.ofEpochMilli(timestamp).atZone(Renewal.getZoneId()).toLocalDate();
+        return switch (Temporality.getTemporalityMode()) {
+            /* epoch day 0 is a Thursday */
+            case 2 -> Math.floorDiv(date.toEpochDay() + 3, 7);
+            case 3 -> date.getYear() * 12L + date.getMonthValue() - 1;
+            default -> date.toEpochDay();
+        };
+    }
+
+    /**
+     * Get the start of the period following the given timestamp.
+     *
+     * @param timestamp timestamp, in milliseconds.
+     * @return time of the next renewal, in milliseconds.
+     */
+    public static long getNextRenewal(long timestamp) {
+        final LocalDate date = Instant.ofEpochMilli(timestamp).atZone(Renewal.getZoneId()).toLocalDate();
+        final LocalDate next = switch (Temporality.getTemporalityMode()) {
+            case 2 -> date.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+            case 3 -> date.with(TemporalAdjusters.firstDayOfNextMonth());
+            default -> date.plusDays(1);
+        };
+        return next.atStartOfDay(Renewal.getZoneId()).toInstant().toEpochMilli();
+    }
+}
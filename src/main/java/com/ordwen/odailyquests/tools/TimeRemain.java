@@ -4,8 +4,6 @@ import com.ordwen.odailyquests.configuration.essentials.Modes;
 import com.ordwen.odailyquests.configuration.essentials.Temporality;
 import com.ordwen.odailyquests.quests.player.QuestsManager;
 
-import java.util.Calendar;
-
 public class TimeRemain {
 
     private static String d;
@@ -31,32 +29,25 @@ public class TimeRemain {
      */
     public static String timeRemain(String playerName) {
 
-        long timestamp = QuestsManager.getActiveQuests().get(playerName).getTimestamp();
-        long diff;
+        final long now = System.currentTimeMillis();
+        final long rest;
 
+        /* quests are renewed at the start of the next period */
         if (Modes.getTimestampMode() == 1) {
-            Calendar oldCal = Calendar.getInstance();
-            oldCal.setTimeInMillis(timestamp);
-            oldCal.set(Calendar.HOUR_OF_DAY, oldCal.getActualMinimum(Calendar.HOUR_OF_DAY));
-            oldCal.set(Calendar.MINUTE, oldCal.getActualMinimum(Calendar.MINUTE));
-            oldCal.set(Calendar.SECOND, oldCal.getActualMinimum(Calendar.SECOND));
-            oldCal.set(Calendar.MILLISECOND, oldCal.getActualMinimum(Calendar.MILLISECOND));
-
-            Calendar currentCal = Calendar.getInstance();
-            currentCal.setTimeInMillis(System.currentTimeMillis());
-
-            diff = currentCal.getTimeInMillis() - oldCal.getTimeInMillis();
+            rest = RenewalScheduler.getNextRenewal(now) - now;
         } else {
-            diff = System.currentTimeMillis() - timestamp;
+            final long diff = now - QuestsManager.getActiveQuests().get(playerName).getTimestamp();
+            rest = switch (Temporality.getTemporalityMode()) {
+                case 2 -> 604800000L - diff;
+                case 3 -> 2678400000L - diff;
+                default -> 86400000L - diff;
+            };
         }
 
         String timeRemain = "";
 
-        long rest;
-
         switch (Temporality.getTemporalityMode()) {
             case 1 -> {
-                rest = 86400000L - diff;
                 int minutes = (int) ((rest / (1000 * 60)) % 60);
                 int hours = (int) ((rest / (1000 * 60 * 60)) % 24);
                 if (hours != 0) {
@@ -67,14 +58,7 @@ public class TimeRemain {
                     timeRemain = fewSeconds;
                 }
             }
-            case 2 -> {
-                rest = 604800000L - diff;
-                timeRemain = getTimeRemainString(rest, d, h, m);
-            }
-            case 3 -> {
-                rest = 2678400000L - diff;
-                timeRemain = getTimeRemainString(rest, d, h, m);
-            }
+            case 2, 3 -> timeRemain = getTimeRemainString(rest, d, h, m);
         }
 
         return timeRemain;